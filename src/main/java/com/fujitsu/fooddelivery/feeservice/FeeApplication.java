@@ -2,14 +2,26 @@ package com.fujitsu.fooddelivery.feeservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.annotation.PropertySources;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.time.Clock;
+
 @SpringBootApplication
 @EnableScheduling
 public class FeeApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(FeeApplication.class, args);
 	}
+
+	/**
+	 * Clock used for resolving the current point in time of fee quotes, replaceable in tests
+	 * @return system clock in the default time zone
+	 */
+	@Bean
+	public Clock clock() {
+		return Clock.systemDefaultZone();
+	}
 }
\ No newline at end of file
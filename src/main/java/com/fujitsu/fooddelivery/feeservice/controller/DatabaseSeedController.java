@@ -5,21 +5,21 @@ import com.fujitsu.fooddelivery.feeservice.model.repository.*;
 import com.fujitsu.fooddelivery.feeservice.representation.BadRequestErrorResponse;
 import com.fujitsu.fooddelivery.feeservice.representation.ErrorResponse;
 import com.fujitsu.fooddelivery.feeservice.representation.SuccessResponse;
-import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
-import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusApiReader;
-import org.dom4j.Document;
-import org.dom4j.DocumentException;
-import org.dom4j.io.SAXReader;
+import com.fujitsu.fooddelivery.feeservice.service.CacheStatisticsService;
+import com.fujitsu.fooddelivery.feeservice.service.WeatherBackfillService;
+import com.fujitsu.fooddelivery.feeservice.service.WeatherFeedSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.event.LocationChangedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.WeatherFeedSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
@@ -39,6 +39,14 @@ public class DatabaseSeedController {
     private RegionalBaseFeeRepository regionalBaseFeeRepository;
     @Autowired
     private ExtraFeeRepository extraFeeRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private WeatherFeedSnapshotService weatherFeedSnapshotService;
+    @Autowired
+    private WeatherBackfillService weatherBackfillService;
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
 
     private final Logger logger = Logger.getLogger(DatabaseSeedController.class.getName());
 
@@ -57,10 +65,7 @@ public class DatabaseSeedController {
         return extraFees;
     }
 
-    private List<Location> generateLocations() throws MalformedURLException, DocumentException {
-        SAXReader reader = new SAXReader();
-        Document document = reader.read(new URL(IlmateenistusApiReader.ENDPOINT));
-        WeatherApiReader api = new IlmateenistusApiReader(document);
+    private List<Location> generateLocations(WeatherFeedSnapshot api) {
         List<Location> locations = new ArrayList<>();
         // Tallinn
         locations.add(new Location());
@@ -114,19 +119,48 @@ public class DatabaseSeedController {
             return ResponseEntity.notFound().build();
         }
 
-        // try to generate and save all locations
-        try {
-            List<Location> locations = this.generateLocations();
-            this.locationRepository.saveAll(locations);
-            return new ResponseEntity<>(new SuccessResponse(), HttpStatus.OK);
-        }
-        catch (MalformedURLException e) {
-            this.logger.severe(e.getMessage());
+        // weather stations are read from the shared weather feed snapshot
+        WeatherFeedSnapshot api = this.weatherFeedSnapshotService.current();
+        if (api.isEmpty()) {
+            this.logger.severe("Could not read weather stations");
             return ResponseEntity.badRequest().body(new BadRequestErrorResponse("Failed to initialize the database"));
         }
-        catch (DocumentException e) {
-            this.logger.severe("Could not create instance of Document: " + e.getMessage());
-            return ResponseEntity.badRequest().body(new BadRequestErrorResponse("Failed to initialize the database"));
+
+        // generate and save all locations
+        List<Location> locations = this.generateLocations(api);
+        this.locationRepository.saveAll(locations);
+        this.eventPublisher.publishEvent(new LocationChangedEvent(null));
+        return new ResponseEntity<>(new SuccessResponse(), HttpStatus.OK);
+    }
+
+    /**
+     * POST request endpoint to start backfilling historical weather observations from the configured archive directory
+     * @return a response entity that contains the backfill progress if the backfill was started or ErrorResponse if one is already running
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<?> startBackfill() {
+        if (!weatherBackfillService.start()) {
+            this.logger.warning("An attempt was made to start a weather observation backfill while one is running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("A weather observation backfill is already running", HttpStatus.CONFLICT.value()));
         }
+        return ResponseEntity.accepted().body(weatherBackfillService.getStatus());
+    }
+
+    /**
+     * GET request endpoint for the progress of the running or the most recent weather observation backfill
+     * @return a response entity that contains the backfill progress
+     */
+    @GetMapping("/backfill")
+    public ResponseEntity<?> getBackfillStatus() {
+        return ResponseEntity.ok(weatherBackfillService.getStatus());
+    }
+
+    /**
+     * GET request endpoint for hit, miss and put counts of the second-level and query cache regions
+     * @return a response entity that contains a list of cache region usages
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<?> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.findAll());
     }
 }
@@ -1,27 +1,53 @@
 package com.fujitsu.fooddelivery.feeservice.controller;
 
 import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
-import com.fujitsu.fooddelivery.feeservice.model.Location;
 import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
 import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
-import com.fujitsu.fooddelivery.feeservice.model.repository.LocationRepository;
 import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
 import com.fujitsu.fooddelivery.feeservice.representation.BadRequestErrorResponse;
 import com.fujitsu.fooddelivery.feeservice.representation.ErrorResponse;
 
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteRequest;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteResult;
 import com.fujitsu.fooddelivery.feeservice.representation.FeeResponse;
+import com.fujitsu.fooddelivery.feeservice.service.CronWeatherImport;
+import com.fujitsu.fooddelivery.feeservice.service.CurrentFeeMatrixService;
 import com.fujitsu.fooddelivery.feeservice.service.FeeCalculationService;
+import com.fujitsu.fooddelivery.feeservice.service.FeeQuoteService;
+import com.fujitsu.fooddelivery.feeservice.service.FeeSeriesService;
+import com.fujitsu.fooddelivery.feeservice.service.LatestObservationService;
+import com.fujitsu.fooddelivery.feeservice.service.LocationSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.UnixTimestamps;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.CurrentFee;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.CurrentFeeMatrix;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.time.Instant;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.logging.Logger;
@@ -31,12 +57,28 @@ import java.util.logging.Logger;
  */
 @RestController
 public class FeeCalculationController {
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final Duration HISTORICAL_MAX_AGE = Duration.ofDays(365);
+
     @Autowired
-    private LocationRepository locationRepository;
+    private LocationSnapshotService locationSnapshotService;
     @Autowired
     private WeatherObservationRepository weatherObservationRepository;
     @Autowired
     private FeeCalculationService feeCalculationService;
+    @Autowired
+    private FeeQuoteService feeQuoteService;
+    @Autowired
+    private CurrentFeeMatrixService currentFeeMatrixService;
+    @Autowired
+    private FeeSeriesService feeSeriesService;
+    @Autowired
+    private LatestObservationService latestObservationService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Clock clock;
+    private CronExpression weatherImportSchedule;
     private final Logger logger;
 
 
@@ -44,35 +86,73 @@ public class FeeCalculationController {
         logger = Logger.getLogger(FeeCalculationController.class.getName());
     }
 
+    @Value("${scheduling.weatherimport.cron}")
+    public void setWeatherImportCron(String cron) {
+        this.weatherImportSchedule = CronExpression.parse(cron);
+    }
+
     /**
      * GET request controller for /api/courierfee endpoint
-     * @param city specifies a city URL variable, which must reference a valid location in the database
+     * @param city specifies a city URL variable, which must reference a valid location in the database (case insensitive)
      * @param vehicle specifies a vehicle URL variable, which must be one of following values: "car", "scooter", "bike"
-     * @return a response entity that either contains calculated fee value if the request was successful or an error message.
+     * @param ifNoneMatch specifies optional entity tags of a previously received response
+     * @return a response entity that either contains calculated fee value if the request was successful, an empty
+     * not modified response if the fee has not changed since given entity tag or an error message.
      */
     @GetMapping("/api/courierfee")
     public ResponseEntity<?> courierfeeEndpoint(@RequestParam(value = "city", defaultValue = "") String city,
                                                 @RequestParam(value = "vehicle", defaultValue = "") String vehicle,
-                                                @RequestParam(value = "unixTimestamp", defaultValue = "") String unixTimestamp)
+                                                @RequestParam(value = "unixTimestamp", defaultValue = "") String unixTimestamp,
+                                                @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch)
     {
         try {
             VehicleType type = VehicleType.valueOf(vehicle.toUpperCase()); // can throw IllegalArgumentException
-            Location location = this.locationRepository.findByCity(city).get(); // can throw NoSuchElementException
+            LocationSnapshot location = this.locationSnapshotService.findByCity(city).get(); // can throw NoSuchElementException
             Optional<WeatherObservation> optObservation;
+            LocalDateTime time;
+            CacheControl cacheControl;
             try {
                 // try to parse unixTimestamp url variable
                 long timestamp = Long.parseLong(unixTimestamp);
-                LocalDateTime ldt = Instant.ofEpochSecond(timestamp).atOffset(ZoneOffset.UTC).toLocalDateTime();
+                LocalDateTime ldt = UnixTimestamps.toLocalDateTime(timestamp, clock);
                 logger.info("Querying the most recent WeatherObservation entry at timestamp " + ldt);
                 optObservation = weatherObservationRepository.findFirstByStationAndTimestampLessThanEqualOrderByTimestampDesc(location.getWeatherStation(), ldt);
+                time = ldt;
+
+                // only answers before the newest stored observation are final, later instants change with the next import
+                Optional<WeatherObservation> newest = latestObservationService.findLatest(location.getWeatherStation());
+                if (newest.isPresent() && ldt.isBefore(newest.get().getTimestamp()))
+                    cacheControl = CacheControl.maxAge(HISTORICAL_MAX_AGE).cachePublic().immutable();
+                else
+                    cacheControl = CacheControl.maxAge(timeUntilNextChange(location, LocalDateTime.now(clock))).cachePublic();
             }
             catch (NumberFormatException e) {
-                // if it fails then just query the most recent WeatherObservation
-                logger.info("Querying the most recent WeatherObservation entry");
-                optObservation = weatherObservationRepository.findFirstByStationOrderByTimestampDesc(location.getWeatherStation());
+                time = LocalDateTime.now(clock);
+                cacheControl = CacheControl.maxAge(timeUntilNextChange(location, time)).cachePublic();
+
+                // if it fails then use the precomputed current fee when available
+                CurrentFeeMatrix matrix = currentFeeMatrixService.findCurrentMatrix();
+                Optional<String> eTag = matrix.findETag(location.getId());
+                Optional<CurrentFee> currentFee = matrix.find(location.getId(), type);
+                if (eTag.isPresent() && currentFee.isPresent()) {
+                    if (matchesETag(ifNoneMatch, eTag.get()))
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).cacheControl(cacheControl).build();
+                    if (currentFee.get().isForbidden())
+                        throw new ForbiddenVehicleException(currentFee.get().forbiddenMessage());
+                    return ResponseEntity.ok().eTag(eTag.get()).cacheControl(cacheControl).body(new FeeResponse(currentFee.get().fee(), location.getCurrency()));
+                }
+
+                // otherwise use the most recent WeatherObservation kept in memory
+                optObservation = latestObservationService.findLatest(location.getWeatherStation());
             }
-            BigDecimal fee = feeCalculationService.calculate(location, type, optObservation.orElse(null)); // can throw ForbiddenVehicleException
-            return ResponseEntity.ok(new FeeResponse(fee, location.getCurrency()));
+
+            String eTag = location.quoteETag(time, optObservation.orElse(null));
+            if (matchesETag(ifNoneMatch, eTag))
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+
+            // rules are evaluated at the requested point in time, thus historical quotes use historically valid rules
+            BigDecimal fee = feeCalculationService.calculate(location.getRules().at(time), type, optObservation.orElse(null)); // can throw ForbiddenVehicleException
+            return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(new FeeResponse(fee, location.getCurrency()));
         }
         catch (NoSuchElementException e) {
             logger.warning("Could not find city with name '" + city + "'");
@@ -86,5 +166,123 @@ public class FeeCalculationController {
             logger.warning("Usage of selected vehicle " + vehicle.toLowerCase() + " is forbidden in '" + city);
             return ResponseEntity.badRequest().body(new BadRequestErrorResponse(e.getMessage()));
         }
+        catch (DateTimeException e) {
+            logger.warning("Invalid unixTimestamp argument '" + unixTimestamp + "' given to '/api/courierfee/' endpoint");
+            return ResponseEntity.badRequest().body(new BadRequestErrorResponse("Invalid unixTimestamp argument '" + unixTimestamp + "'"));
+        }
+    }
+
+    /**
+     * POST request controller for /api/courierfee/batch endpoint
+     * @param requests specifies a list of fee quote requests, each containing city, vehicle and optional unixTimestamp
+     * @return a response entity that contains a list of per-request results in the same order as requests
+     * or an error message when the batch itself is invalid
+     */
+    @PostMapping("/api/courierfee/batch")
+    public ResponseEntity<?> courierfeeBatchEndpoint(@RequestBody List<FeeQuoteRequest> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            logger.warning("Batch fee quote request with " + requests.size() + " items exceeds the limit of " + MAX_BATCH_SIZE);
+            return ResponseEntity.badRequest().body(new BadRequestErrorResponse("Batch size must not exceed " + MAX_BATCH_SIZE + " requests"));
+        }
+
+        List<FeeQuoteResult> results = feeQuoteService.quoteAll(requests);
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * GET request controller for /api/courierfee/series endpoint
+     * @param city specifies a city URL variable, which must reference a valid location in the database (case insensitive)
+     * @param vehicles specifies a comma separated list of vehicle types, all vehicle types are used when empty
+     * @param from specifies the inclusive start of the time range as Unix timestamp
+     * @param to specifies the exclusive end of the time range as Unix timestamp
+     * @return a response entity that streams fee series points as newline delimited JSON or an error message.
+     * The stream reads observations with a database cursor, thus it holds a pooled connection and a transaction until it ends.
+     * Streaming is aborted after feeseries.stream-timeout, so that a slow client can not hold the connection indefinitely.
+     */
+    @GetMapping("/api/courierfee/series")
+    public ResponseEntity<?> courierfeeSeriesEndpoint(@RequestParam(value = "city", defaultValue = "") String city,
+                                                      @RequestParam(value = "vehicles", defaultValue = "") String vehicles,
+                                                      @RequestParam(value = "from", defaultValue = "") String from,
+                                                      @RequestParam(value = "to", defaultValue = "") String to)
+    {
+        Optional<LocationSnapshot> location = this.locationSnapshotService.findByCity(city);
+        if (location.isEmpty()) {
+            logger.warning("Could not find city with name '" + city + "'");
+            return ResponseEntity.badRequest().body(new BadRequestErrorResponse("Invalid city name '" + city + "'"));
+        }
+
+        EnumSet<VehicleType> types = EnumSet.noneOf(VehicleType.class);
+        for (String vehicle : vehicles.split(",")) {
+            if (vehicle.isBlank())
+                continue;
+            try {
+                types.add(VehicleType.valueOf(vehicle.trim().toUpperCase()));
+            }
+            catch (IllegalArgumentException e) {
+                logger.warning("Invalid vehicle argument '" + vehicle.toLowerCase() + "' given to '/api/courierfee/series' endpoint");
+                return ResponseEntity.badRequest().body(new BadRequestErrorResponse("Invalid vehicle argument '" + vehicle + "'"));
+            }
+        }
+        if (types.isEmpty())
+            types = EnumSet.allOf(VehicleType.class);
+
+        LocalDateTime fromTime;
+        LocalDateTime toTime;
+        try {
+            fromTime = UnixTimestamps.toLocalDateTime(Long.parseLong(from), clock);
+            toTime = UnixTimestamps.toLocalDateTime(Long.parseLong(to), clock);
+        }
+        catch (NumberFormatException | DateTimeException e) {
+            // DateTimeException is thrown for numeric timestamps outside the supported range of instants
+            return ResponseEntity.badRequest().body(new BadRequestErrorResponse("Invalid time range '" + from + "' - '" + to + "'"));
+        }
+        if (!fromTime.isBefore(toTime))
+            return ResponseEntity.badRequest().body(new BadRequestErrorResponse("Invalid time range '" + from + "' - '" + to + "'"));
+
+        final EnumSet<VehicleType> selectedTypes = types;
+        StreamingResponseBody body = outputStream -> {
+            long points = feeSeriesService.streamSeries(location.get(), selectedTypes, fromTime, toTime, point -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(point));
+                    outputStream.write('\n');
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.info("Streamed " + points + " fee series point(s) for '" + city + "'");
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /*
+        Current quotes stay the same until the next scheduled weather import or until the set of valid rules changes,
+        whichever comes first
+     */
+    private Duration timeUntilNextChange(LocationSnapshot location, LocalDateTime now) {
+        // weather imports are scheduled in their own time zone, while rules use the local time of the clock
+        ZonedDateTime zonedNow = now.atZone(clock.getZone());
+        ZonedDateTime nextChange = weatherImportSchedule.next(zonedNow.withZoneSameInstant(ZoneId.of(CronWeatherImport.SCHEDULE_ZONE)));
+        LocalDateTime nextRuleChange = location.getRules().nextChangeAfter(now);
+        if (nextRuleChange != null && (nextChange == null || nextRuleChange.atZone(clock.getZone()).isBefore(nextChange)))
+            nextChange = nextRuleChange.atZone(clock.getZone());
+
+        if (nextChange == null)
+            return Duration.ZERO;
+        Duration duration = Duration.between(zonedNow, nextChange);
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+
+    private static boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null)
+            return false;
+
+        // If-None-Match uses weak comparison, thus weak validators of the same entity tag match as well
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || candidate.equals(eTag) || candidate.equals("W/" + eTag))
+                return true;
+        }
+        return false;
     }
 }
@@ -44,11 +44,17 @@ public class LocationCrudController {
 
     /**
      * CRUD endpoint for querying all possible locations in the database
-     * @return a ResponseEntity object containing a list of all locations
+     * @param view specifies the representation of the locations, "summary" (default) for ID, country, city and currency only
+     *             or "full" for locations with their fee rules and weather stations
+     * @return a ResponseEntity object containing a list of all locations or an error response that describes invalid view
      */
     @GetMapping("")
-    public ResponseEntity<List<Location>> getAllLocations() {
-        return ResponseEntity.ok(locationCrudService.getAllLocations());
+    public ResponseEntity<?> getAllLocations(@RequestParam(value = "view", defaultValue = "summary") String view) {
+        return switch (view.toLowerCase()) {
+            case "summary" -> ResponseEntity.ok(locationCrudService.getAllLocationSummaries());
+            case "full" -> ResponseEntity.ok(locationCrudService.getAllLocations());
+            default -> ResponseEntity.badRequest().body(new BadRequestErrorResponse("Invalid view '" + view + "', expected 'summary' or 'full'"));
+        };
     }
 
     /**
@@ -7,12 +7,16 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Inheritance(strategy =  InheritanceType.SINGLE_TABLE)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "extra-fees")
 @NoArgsConstructor
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "extraFeeType")
 @JsonSubTypes({
@@ -89,8 +93,16 @@ public abstract class ExtraFee {
      * @return true if the extra fee rule is currently valid, false otherwise
      */
     public boolean isValid() {
-        final LocalDateTime now = LocalDateTime.now();
-        return this.validFrom.isBefore(now) && (this.expireTime == null || this.expireTime.isAfter(now));
+        return isValidAt(LocalDateTime.now());
+    }
+
+    /**
+     * Checks whether the extra fee rule is valid at given point in time according to it's validity date variables
+     * @param time specifies the point in time to check against
+     * @return true if the extra fee rule is valid at given time, false otherwise
+     */
+    public boolean isValidAt(LocalDateTime time) {
+        return this.validFrom.isBefore(time) && (this.expireTime == null || this.expireTime.isAfter(time));
     }
 
     /**
@@ -2,16 +2,30 @@ package com.fujitsu.fooddelivery.feeservice.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
 @Table(name="locations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations")
+@NamedEntityGraph(name = Location.RULES_GRAPH, attributeNodes = {
+    @NamedAttributeNode("regionalBaseFee"),
+    @NamedAttributeNode("extraFees"),
+    @NamedAttributeNode("weatherStation")
+})
 @Builder
 @EqualsAndHashCode
 @AllArgsConstructor
 @NoArgsConstructor
 public class Location {
+    /**
+     * Entity graph that fetches every association used for fee calculation together with the location
+     */
+    public static final String RULES_GRAPH = "Location.rules";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Setter
@@ -41,6 +55,7 @@ public class Location {
     private RegionalBaseFee regionalBaseFee;
 
     @OneToMany(cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "location-extra-fees")
     @Setter
     @Getter
     private List<ExtraFee> extraFees;
@@ -3,11 +3,15 @@ package com.fujitsu.fooddelivery.feeservice.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "rbf")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "regional-base-fees")
 @Builder
 @EqualsAndHashCode
 @AllArgsConstructor
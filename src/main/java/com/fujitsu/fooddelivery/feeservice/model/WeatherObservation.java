@@ -7,7 +7,12 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "weather_observations")
+@Table(name = "weather_observations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_weather_observations_station_timestamp", columnNames = {"station_id", "timestamp"})
+}, indexes = {
+    // latest and as-of lookups seek to the first entry of a station at or before a given time
+    @Index(name = "idx_weather_observations_station_timestamp_desc", columnList = "station_id, timestamp DESC")
+})
 @NoArgsConstructor
 public class WeatherObservation {
     @Id
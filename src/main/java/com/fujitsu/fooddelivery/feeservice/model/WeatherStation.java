@@ -2,11 +2,15 @@ package com.fujitsu.fooddelivery.feeservice.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
 @Entity
 @Table(name = "weather_stations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "weather-stations")
 @Builder
 @EqualsAndHashCode
 @AllArgsConstructor
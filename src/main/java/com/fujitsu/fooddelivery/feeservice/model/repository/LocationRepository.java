@@ -1,10 +1,56 @@
 package com.fujitsu.fooddelivery.feeservice.model.repository;
 
 import com.fujitsu.fooddelivery.feeservice.model.Location;
+import com.fujitsu.fooddelivery.feeservice.representation.SimplifiedLocationResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Finder results are kept in the query cache, which is invalidated whenever one of the queried tables is written through JPA
+ */
 public interface LocationRepository extends JpaRepository<Location, Integer> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Location> findByCity(String city);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCity(String city);
+
+    /**
+     * Finds all locations together with their regional base fees, extra fees and weather stations in a single query.
+     * The locations are loaded read-only, thus they are not dirty checked
+     * @return a list of all locations
+     */
+    @EntityGraph(Location.RULES_GRAPH)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT l FROM Location l")
+    List<Location> findAllWithRules();
+
+    /**
+     * Finds a location together with its regional base fee, extra fees and weather station in a single query.
+     * The location is loaded read-only, thus it is not dirty checked
+     * @param id specifies the ID of the location
+     * @return an optional location
+     */
+    @EntityGraph(Location.RULES_GRAPH)
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM Location l WHERE l.id = :id")
+    Optional<Location> findWithRulesById(@Param("id") Integer id);
+
+    /**
+     * Finds the ID, country, city and currency of all locations without loading any entities or fee rules
+     * @return a list of location summaries ordered by ID
+     */
+    @Query("SELECT new com.fujitsu.fooddelivery.feeservice.representation.SimplifiedLocationResponse(l.id, l.country, l.city, l.currency) FROM Location l ORDER BY l.id")
+    List<SimplifiedLocationResponse> findAllSummaries();
 }
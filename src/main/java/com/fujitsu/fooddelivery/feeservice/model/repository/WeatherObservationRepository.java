@@ -2,12 +2,47 @@ package com.fujitsu.fooddelivery.feeservice.model.repository;
 
 import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
 import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface WeatherObservationRepository extends JpaRepository<WeatherObservation, Integer> {
-    Optional<WeatherObservation> findFirstByStationOrderByTimestampDesc(WeatherStation station);
-    Optional<WeatherObservation> findFirstByStationAndTimestampLessThanEqualOrderByTimestampDesc(WeatherStation station, LocalDateTime timestamp);
+public interface WeatherObservationRepository extends JpaRepository<WeatherObservation, Integer>, WeatherObservationRepositoryCustom {
+    /*
+        Both lookups fetch a single row and order by the exact columns of the (station_id, timestamp DESC) index,
+        the constant station_id included, as H2 only skips sorting the history of a station when the ORDER BY
+        matches the index. The lookup thus resolves to a seek to the first index entry.
+     */
+    @Query("SELECT o FROM WeatherObservation o WHERE o.station = :station ORDER BY o.station.id, o.timestamp DESC LIMIT 1")
+    Optional<WeatherObservation> findFirstByStationOrderByTimestampDesc(@Param("station") WeatherStation station);
+
+    @Query("SELECT o FROM WeatherObservation o WHERE o.station = :station AND o.timestamp <= :timestamp ORDER BY o.station.id, o.timestamp DESC LIMIT 1")
+    Optional<WeatherObservation> findFirstByStationAndTimestampLessThanEqualOrderByTimestampDesc(@Param("station") WeatherStation station,
+                                                                                                  @Param("timestamp") LocalDateTime timestamp);
+
+    Optional<WeatherObservation> findFirstByStationAndTimestampGreaterThanEqualOrderByTimestampAsc(WeatherStation station, LocalDateTime timestamp);
+    List<WeatherObservation> findByStationAndTimestampLessThanOrderByTimestampAsc(WeatherStation station, LocalDateTime before, Pageable pageable);
+    List<WeatherObservation> findByStationAndTimestampGreaterThanAndTimestampLessThanOrderByTimestampAsc(WeatherStation station, LocalDateTime after, LocalDateTime before, Pageable pageable);
+
+    // one index seek per station, comparing every observation of the stations against their maximum timestamp would scan their whole history
+    @Query("SELECT o FROM WeatherObservation o WHERE o.id IN " +
+           "(SELECT (SELECT latest.id FROM WeatherObservation latest WHERE latest.station = s " +
+           "ORDER BY latest.station.id, latest.timestamp DESC LIMIT 1) FROM WeatherStation s WHERE s.id IN :stationIds)")
+    List<WeatherObservation> findLatestByStationIds(@Param("stationIds") Collection<Integer> stationIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    @Query("SELECT o FROM WeatherObservation o WHERE o.station = :station AND o.timestamp > :from AND o.timestamp < :to " +
+           "ORDER BY o.timestamp ASC, o.id ASC")
+    Stream<WeatherObservation> streamByStationBetween(@Param("station") WeatherStation station,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,31 @@
+package com.fujitsu.fooddelivery.feeservice.model.repository;
+
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface WeatherObservationRepositoryCustom {
+    /**
+     * Point in time of a weather station whose observation is looked up
+     * @param stationId specifies the ID of the weather station
+     * @param timestamp specifies the point in time
+     */
+    record AsOfLookup(Integer stationId, LocalDateTime timestamp) {}
+
+    /**
+     * Inserts or updates given observations in JDBC batches, observations are identified by their station and timestamp.
+     * Re-importing the same observations is idempotent, IDs of the given instances are not populated.
+     * @param observations specifies the observations to store
+     * @return the number of stored observations
+     */
+    int upsertAll(Collection<WeatherObservation> observations);
+
+    /**
+     * Finds the most recent observation at or before the point in time of every given lookup with a single query
+     * @param lookups specifies the station and point in time pairs to look up
+     * @return a map of lookups to observations, lookups without any observation at or before their point in time are missing
+     */
+    Map<AsOfLookup, WeatherObservation> findAsOf(Collection<AsOfLookup> lookups);
+}
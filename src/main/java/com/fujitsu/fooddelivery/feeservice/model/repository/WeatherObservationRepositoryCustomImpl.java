@@ -0,0 +1,99 @@
+package com.fujitsu.fooddelivery.feeservice.model.repository;
+
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Implementation of WeatherObservationRepositoryCustom.<br>
+ * Identity generated IDs prevent Hibernate from batching inserts, thus observations are written with plain JDBC
+ * batches of MERGE statements keyed by the unique (station_id, timestamp) constraint.<br>
+ * As-of lookups of many stations and points in time are answered by a single native query, which seeks the
+ * (station_id, timestamp DESC) index once per lookup.
+ */
+public class WeatherObservationRepositoryCustomImpl implements WeatherObservationRepositoryCustom {
+    private static final int BATCH_SIZE = 100;
+    private static final String UPSERT_SQL = """
+        MERGE INTO weather_observations o
+        USING (SELECT CAST(? AS INTEGER) AS station_id, CAST(? AS TIMESTAMP) AS observed_at, CAST(? AS VARCHAR(255)) AS phenomenon,
+                      CAST(? AS REAL) AS airtemperature, CAST(? AS REAL) AS wind_speed) s
+        ON (o.station_id = s.station_id AND o.timestamp = s.observed_at)
+        WHEN MATCHED THEN UPDATE SET phenomenon = s.phenomenon, airtemperature = s.airtemperature, wind_speed = s.wind_speed
+        WHEN NOT MATCHED THEN INSERT (station_id, timestamp, phenomenon, airtemperature, wind_speed)
+            VALUES (s.station_id, s.observed_at, s.phenomenon, s.airtemperature, s.wind_speed)
+        """;
+
+    private static final String AS_OF_SQL = """
+        SELECT o.* FROM weather_observations o WHERE o.id IN (
+            SELECT (SELECT latest.id FROM weather_observations latest
+                    WHERE latest.station_id = k.station_id AND latest.timestamp <= k.observed_at
+                    ORDER BY latest.station_id, latest.timestamp DESC LIMIT 1)
+            FROM (VALUES %s) AS k(station_id, observed_at))
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private record Key(Integer stationId, Object timestamp) {}
+
+    @Override
+    public int upsertAll(Collection<WeatherObservation> observations) {
+        // the last observation wins when the same station and timestamp occurs multiple times
+        Map<Key, WeatherObservation> unique = new LinkedHashMap<>();
+        for (WeatherObservation observation : observations)
+            unique.put(new Key(observation.getStation().getId(), observation.getTimestamp()), observation);
+
+        List<WeatherObservation> rows = new ArrayList<>(unique.values());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, BATCH_SIZE, (ps, observation) -> {
+            ps.setObject(1, observation.getStation().getId(), Types.INTEGER);
+            ps.setObject(2, observation.getTimestamp(), Types.TIMESTAMP);
+            ps.setObject(3, observation.getPhenomenon() == null ? null : observation.getPhenomenon().name(), Types.VARCHAR);
+            ps.setObject(4, observation.getAirtemperature(), Types.REAL);
+            ps.setObject(5, observation.getWindSpeed(), Types.REAL);
+        });
+        return rows.size();
+    }
+
+    @Override
+    public Map<AsOfLookup, WeatherObservation> findAsOf(Collection<AsOfLookup> lookups) {
+        Map<AsOfLookup, WeatherObservation> observations = new HashMap<>();
+        Set<AsOfLookup> unique = new LinkedHashSet<>(lookups);
+        if (unique.isEmpty())
+            return observations;
+
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < unique.size(); i++)
+            values.add("(CAST(?" + (2 * i + 1) + " AS INTEGER), CAST(?" + (2 * i + 2) + " AS TIMESTAMP))");
+        Query query = entityManager.createNativeQuery(AS_OF_SQL.formatted(values), WeatherObservation.class);
+        int position = 1;
+        for (AsOfLookup lookup : unique) {
+            query.setParameter(position++, lookup.stationId());
+            query.setParameter(position++, lookup.timestamp());
+        }
+
+        // the query returns every answer once, the answer of a lookup is the newest returned observation of its station at or before its time
+        Map<Integer, List<WeatherObservation>> byStation = new HashMap<>();
+        for (Object result : query.getResultList()) {
+            WeatherObservation observation = (WeatherObservation) result;
+            byStation.computeIfAbsent(observation.getStation().getId(), id -> new ArrayList<>()).add(observation);
+        }
+        for (AsOfLookup lookup : unique) {
+            for (WeatherObservation observation : byStation.getOrDefault(lookup.stationId(), List.of())) {
+                if (observation.getTimestamp().isAfter(lookup.timestamp()))
+                    continue;
+                WeatherObservation current = observations.get(lookup);
+                if (current == null || observation.getTimestamp().isAfter(current.getTimestamp()))
+                    observations.put(lookup, observation);
+            }
+        }
+        return observations;
+    }
+}
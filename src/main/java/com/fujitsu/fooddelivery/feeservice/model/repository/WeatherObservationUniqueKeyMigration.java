@@ -0,0 +1,78 @@
+package com.fujitsu.fooddelivery.feeservice.model.repository;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.logging.Logger;
+
+/**
+ * Adds the unique (station_id, timestamp) constraint of weather observations to databases created before it existed.<br>
+ * Such databases may hold duplicate observations, on which the schema update of Hibernate fails to add the constraint
+ * while only logging a warning. Thus duplicates are deleted once, keeping the observation with the highest ID of every
+ * station and timestamp, and the constraint is added before the entity manager factory updates the schema.
+ * Startup fails when the constraint still cannot be added.
+ */
+@Component(value = "weatherObservationUniqueKeyMigration")
+public class WeatherObservationUniqueKeyMigration implements InitializingBean {
+    public static final String CONSTRAINT_NAME = "uk_weather_observations_station_timestamp";
+
+    private static final String TABLE_EXISTS_SQL =
+        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = 'WEATHER_OBSERVATIONS'";
+    private static final String CONSTRAINT_EXISTS_SQL =
+        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS WHERE UPPER(CONSTRAINT_NAME) = UPPER('" + CONSTRAINT_NAME + "')";
+    private static final String DELETE_DUPLICATES_SQL = """
+        DELETE FROM weather_observations o WHERE EXISTS (
+            SELECT 1 FROM weather_observations d
+            WHERE d.station_id = o.station_id AND d.timestamp = o.timestamp AND d.id > o.id)
+        """;
+    private static final String ADD_CONSTRAINT_SQL =
+        "ALTER TABLE weather_observations ADD CONSTRAINT " + CONSTRAINT_NAME + " UNIQUE (station_id, timestamp)";
+
+    @Autowired
+    private DataSource dataSource;
+    private final Logger logger = Logger.getLogger(WeatherObservationUniqueKeyMigration.class.getName());
+
+    /**
+     * Makes the entity manager factory, and with it the schema update, wait for the migration
+     */
+    @Component
+    public static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        public EntityManagerFactoryDependency() {
+            super("weatherObservationUniqueKeyMigration");
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate();
+    }
+
+    /**
+     * Deletes duplicate observations and adds the unique constraint, unless the table is missing or already constrained
+     * @return the number of deleted duplicate observations
+     * @throws IllegalStateException if the constraint could not be added
+     */
+    public int migrate() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Integer tables = jdbcTemplate.queryForObject(TABLE_EXISTS_SQL, Integer.class);
+        Integer constraints = jdbcTemplate.queryForObject(CONSTRAINT_EXISTS_SQL, Integer.class);
+        if (tables == null || tables == 0 || (constraints != null && constraints > 0))
+            return 0;
+
+        try {
+            int deleted = jdbcTemplate.update(DELETE_DUPLICATES_SQL);
+            jdbcTemplate.execute(ADD_CONSTRAINT_SQL);
+            logger.info("Deleted " + deleted + " duplicate weather observation(s) and added constraint " + CONSTRAINT_NAME);
+            return deleted;
+        }
+        catch (DataAccessException e) {
+            throw new IllegalStateException("Could not add constraint " + CONSTRAINT_NAME + " to weather_observations, " +
+                "remove duplicate (station_id, timestamp) rows manually", e);
+        }
+    }
+}
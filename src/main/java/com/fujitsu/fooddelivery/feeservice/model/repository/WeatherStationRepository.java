@@ -1,11 +1,23 @@
 package com.fujitsu.fooddelivery.feeservice.model.repository;
 
 import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
 import java.util.Optional;
 
+/**
+ * Finder results are kept in the query cache, which is invalidated whenever the weather_stations table is written through JPA
+ */
 public interface WeatherStationRepository extends JpaRepository<WeatherStation, Integer> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByName(String name);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<WeatherStation> findByName(String name);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<WeatherStation> findByWmoCode(Integer wmo);
 }
@@ -0,0 +1,10 @@
+package com.fujitsu.fooddelivery.feeservice.representation;
+
+/**
+ * Usage of a single second-level cache region since the application was started
+ * @param region specifies the name of the cache region
+ * @param hits specifies the number of lookups answered by the region
+ * @param misses specifies the number of lookups that had to query the database
+ * @param puts specifies the number of entries put into the region
+ */
+public record CacheRegionUsage(String region, long hits, long misses, long puts) {}
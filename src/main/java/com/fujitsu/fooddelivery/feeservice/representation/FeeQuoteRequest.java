@@ -0,0 +1,3 @@
+package com.fujitsu.fooddelivery.feeservice.representation;
+
+public record FeeQuoteRequest(String city, String vehicle, Long unixTimestamp) {}
@@ -0,0 +1,14 @@
+package com.fujitsu.fooddelivery.feeservice.representation;
+
+/**
+ * Single item of a batch fee quote response, exactly one of result and error is non-null
+ */
+public record FeeQuoteResult(String city, String vehicle, Long unixTimestamp, FeeResponse result, ErrorResponse error) {
+    public static FeeQuoteResult success(FeeQuoteRequest request, FeeResponse result) {
+        return new FeeQuoteResult(request.city(), request.vehicle(), request.unixTimestamp(), result, null);
+    }
+
+    public static FeeQuoteResult failure(FeeQuoteRequest request, ErrorResponse error) {
+        return new FeeQuoteResult(request.city(), request.vehicle(), request.unixTimestamp(), null, error);
+    }
+}
@@ -0,0 +1,15 @@
+package com.fujitsu.fooddelivery.feeservice.representation;
+
+/**
+ * Single line of a streamed fee series, describing the fee of a vehicle type from given point in time onwards.<br>
+ * Exactly one of result and error is non-null.
+ */
+public record FeeSeriesPoint(long unixTimestamp, String vehicle, Integer observationId, FeeResponse result, ErrorResponse error) {
+    public static FeeSeriesPoint success(long unixTimestamp, String vehicle, Integer observationId, FeeResponse result) {
+        return new FeeSeriesPoint(unixTimestamp, vehicle, observationId, result, null);
+    }
+
+    public static FeeSeriesPoint failure(long unixTimestamp, String vehicle, Integer observationId, ErrorResponse error) {
+        return new FeeSeriesPoint(unixTimestamp, vehicle, observationId, null, error);
+    }
+}
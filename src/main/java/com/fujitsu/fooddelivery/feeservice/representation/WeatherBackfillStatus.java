@@ -0,0 +1,13 @@
+package com.fujitsu.fooddelivery.feeservice.representation;
+
+/**
+ * Progress of a weather observation backfill from archived feed files
+ * @param running specifies whether the backfill is still running
+ * @param totalFiles specifies the number of archived feed files found
+ * @param skippedFiles specifies the number of files skipped as already backfilled by a previous run
+ * @param completedFiles specifies the number of files backfilled by this run
+ * @param failedFiles specifies the number of files that could not be read or stored, they are retried by the next run
+ * @param storedObservations specifies the number of stored observations
+ */
+public record WeatherBackfillStatus(boolean running, int totalFiles, int skippedFiles, int completedFiles, int failedFiles,
+                                    long storedObservations) {}
@@ -0,0 +1,17 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import com.fujitsu.fooddelivery.feeservice.representation.CacheRegionUsage;
+
+import java.util.List;
+
+/**
+ * CacheStatisticsService is responsible for reporting the usage of the Hibernate second-level and query caches
+ */
+public interface CacheStatisticsService {
+    /**
+     * Returns the usage of every second-level cache region, including the query cache regions.
+     * Counters are only collected while hibernate.generate_statistics is enabled
+     * @return a list of CacheRegionUsage instances ordered by region name
+     */
+    List<CacheRegionUsage> findAll();
+}
@@ -7,47 +7,68 @@ import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRe
 import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
 import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
 
-import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProvider;
-import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiReaderFactory;
+import com.fujitsu.fooddelivery.feeservice.service.event.WeatherImportCompletedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.WeatherFeedSnapshot;
 import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 @EnableAsync
 @Component
 public class CronWeatherImport {
+    public static final String SCHEDULE_ZONE = "Europe/Tallinn";
+
     @Autowired
     private WeatherObservationRepository weatherObservationRepository;
     @Autowired
     private WeatherStationRepository weatherStationRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private WeatherFeedSnapshotService weatherFeedSnapshotService;
+    @Autowired
+    private LatestObservationService latestObservationService;
     private Logger logger = Logger.getLogger(CronWeatherImport.class.getName());
+    // feed versions of the last successful import, keyed by provider name since providers may share a reader implementation
+    private final Map<String, String> importedFeedVersions = new ConcurrentHashMap<>();
 
     public CronWeatherImport() {
         this.logger = Logger.getLogger(CronWeatherImport.class.getName());
     }
 
     @Async
-    @Scheduled(cron = "${scheduling.weatherimport.cron}", zone = "Europe/Tallinn")
+    @Scheduled(cron = "${scheduling.weatherimport.cron}", zone = SCHEDULE_ZONE)
     public void scheduledWeatherDataImport() {
         logger.info("Performing a scheduled weather data import");
         List<WeatherStation> stations = weatherStationRepository.findAll();
-        WeatherApiReaderFactory apiReaderFactory = new WeatherApiReaderFactory();
-        WeatherApiReader weatherApiReader = apiReaderFactory.makeWeatherApiReader(WeatherApiProvider.ILMATEENISTUS);
-        if (weatherApiReader == null) {
+        // the fetched feed also replaces the shared snapshot used for weather station lookups
+        WeatherFeedSnapshot feed = weatherFeedSnapshotService.refresh();
+        List<WeatherApiReader> weatherApiReaders = feed.getReaders();
+        if (weatherApiReaders.isEmpty()) {
             logger.severe("Failed to perform scheduled weather data import");
             return;
         }
+        if (isAlreadyImported(weatherApiReaders)) {
+            logger.info("Weather data has not changed since the previous import");
+            return;
+        }
 
+        List<WeatherObservation> observations = new ArrayList<>();
         for (WeatherStation station : stations) {
+            // only the providers that own the station are queried, in priority order
             try {
-                WeatherObservation observation = weatherApiReader.findTheMostRecentObservationByStation(station);
-                weatherObservationRepository.save(observation);
+                observations.add(feed.findTheMostRecentObservationByStation(station));
             }
             catch (WeatherStationNotFoundException e) {
                 logger.warning(e.getMessage());
@@ -58,5 +79,38 @@ public class CronWeatherImport {
                 logger.warning("This could indicate a problem with integrity of data from the external API");
             }
         }
+
+        if (observations.isEmpty())
+            return;
+
+        // observations are written in batches, re-importing an already stored observation updates it in place
+        int importedObservations;
+        try {
+            importedObservations = weatherObservationRepository.upsertAll(observations);
+        }
+        catch (DataAccessException e) {
+            logger.severe("Failed to store imported weather observations: " + e.getMessage());
+            return;
+        }
+
+        // current-time quotes read the latest observations from memory, thus they are refreshed before announcing the import
+        latestObservationService.update(observations.stream().map(observation -> observation.getStation().getId()).distinct().toList());
+        for (WeatherApiReader weatherApiReader : weatherApiReaders) {
+            if (weatherApiReader.getProviderName() != null && weatherApiReader.getFeedVersion() != null)
+                importedFeedVersions.put(weatherApiReader.getProviderName(), weatherApiReader.getFeedVersion());
+        }
+        logger.info("Stored " + importedObservations + " weather observation(s)");
+        eventPublisher.publishEvent(new WeatherImportCompletedEvent(importedObservations));
+    }
+
+    private boolean isAlreadyImported(List<WeatherApiReader> weatherApiReaders) {
+        // readers without a feed version are always imported
+        for (WeatherApiReader weatherApiReader : weatherApiReaders) {
+            String providerName = weatherApiReader.getProviderName();
+            String feedVersion = weatherApiReader.getFeedVersion();
+            if (providerName == null || feedVersion == null || !feedVersion.equals(importedFeedVersions.get(providerName)))
+                return false;
+        }
+        return true;
     }
 }
@@ -0,0 +1,32 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.CurrentFee;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.CurrentFeeMatrix;
+
+import java.util.Optional;
+
+/**
+ * CurrentFeeMatrixService is responsible for keeping precomputed current fees of every location and vehicle type,
+ * which only change when new weather observations are imported or when location rules change
+ */
+public interface CurrentFeeMatrixService {
+    /**
+     * Finds the precomputed fee based on the most recent weather observation
+     * @param locationId specifies the location ID
+     * @param type specifies the vehicle type
+     * @return an Optional containing the current fee or an empty Optional if the fee has not been precomputed
+     */
+    Optional<CurrentFee> findCurrentFee(Integer locationId, VehicleType type);
+
+    /**
+     * Finds the current fee matrix, fees and entity tags read from the same matrix are always consistent
+     * @return a CurrentFeeMatrix instance
+     */
+    CurrentFeeMatrix findCurrentMatrix();
+
+    /**
+     * Recomputes the whole fee matrix from location snapshots and the most recent weather observations
+     */
+    void rebuild();
+}
@@ -4,6 +4,7 @@ import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
 import com.fujitsu.fooddelivery.feeservice.model.Location;
 import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
 import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.service.rules.CompiledFeeRules;
 
 import java.math.BigDecimal;
 
@@ -17,4 +18,14 @@ public interface FeeCalculationService {
      * @throws ForbiddenVehicleException
      */
     BigDecimal calculate(Location location, VehicleType type, WeatherObservation observation) throws ForbiddenVehicleException;
+
+    /**
+     * Calculates the courier fee based on precompiled location rules, vehicle type and given weather observation
+     * @param rules specifies the compiled rules of a location that are used for the calculation
+     * @param type specifies the type of vehicle to use
+     * @param observation specifies the weather observation that is used to calculate extra fees for the courier
+     * @return BigDecimal object describing the calculated fee
+     * @throws ForbiddenVehicleException
+     */
+    BigDecimal calculate(CompiledFeeRules rules, VehicleType type, WeatherObservation observation) throws ForbiddenVehicleException;
 }
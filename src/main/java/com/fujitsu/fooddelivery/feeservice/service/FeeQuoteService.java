@@ -0,0 +1,19 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteRequest;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteResult;
+
+import java.util.List;
+
+/**
+ * FeeQuoteService is responsible for answering multiple fee quote requests at once
+ */
+public interface FeeQuoteService {
+    /**
+     * Calculates courier fees for all given requests. Location and weather observation lookups are shared between
+     * the requests, thus the cost of the batch grows with the number of distinct stations rather than requests.
+     * @param requests specifies the list of fee quote requests
+     * @return a list of results in the same order as requests, each containing either a fee or an error
+     */
+    List<FeeQuoteResult> quoteAll(List<FeeQuoteRequest> requests);
+}
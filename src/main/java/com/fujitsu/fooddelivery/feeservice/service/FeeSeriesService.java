@@ -0,0 +1,28 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeSeriesPoint;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * FeeSeriesService is responsible for calculating courier fees over a time range
+ */
+public interface FeeSeriesService {
+    /**
+     * Calculates the fee series of given location over a time range. Weather observations are read with a single
+     * ordered cursor and points are emitted in chronological order only when the fee of a vehicle type changes,
+     * thus memory usage does not depend on the length of the range. The cursor holds a database connection and a transaction
+     * while the points are consumed, thus streaming is aborted with QueryTimeoutException after feeseries.stream-timeout.
+     * @param location specifies the location to calculate fees for
+     * @param types specifies the vehicle types to calculate fees for
+     * @param from specifies the inclusive start of the time range in the local time of the application clock
+     * @param to specifies the exclusive end of the time range in the local time of the application clock
+     * @param sink specifies the consumer of calculated points
+     * @return the number of emitted points
+     */
+    long streamSeries(LocationSnapshot location, Collection<VehicleType> types, LocalDateTime from, LocalDateTime to, Consumer<FeeSeriesPoint> sink);
+}
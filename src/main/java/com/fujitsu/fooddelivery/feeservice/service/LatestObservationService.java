@@ -0,0 +1,34 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * LatestObservationService is responsible for keeping the most recent weather observation of every station in memory,
+ * which is used for answering current-time fee quotes without querying the persistence repository
+ */
+public interface LatestObservationService {
+    /**
+     * Attempt to find the most recent weather observation of given station. Stations unknown to the registry are
+     * looked up from the persistence repository once, stations found without observations are not looked up again
+     * until they are updated or the registry is reloaded.
+     * @param station specifies the weather station to use for querying
+     * @return an Optional containing a detached copy of the observation or an empty Optional if the station has no observations
+     */
+    Optional<WeatherObservation> findLatest(WeatherStation station);
+
+    /**
+     * Re-reads the most recent observations of given stations after new observations have been stored.
+     * An observation replaces the registered one only if it is at least as recent.
+     * @param stationIds specifies the IDs of the stations that received observations
+     */
+    void update(Collection<Integer> stationIds);
+
+    /**
+     * Rebuilds the registry from the persistence repository
+     */
+    void reload();
+}
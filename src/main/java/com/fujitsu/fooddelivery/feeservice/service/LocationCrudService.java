@@ -3,6 +3,7 @@ package com.fujitsu.fooddelivery.feeservice.service;
 import com.fujitsu.fooddelivery.feeservice.exception.InvalidIdentifierException;
 import com.fujitsu.fooddelivery.feeservice.exception.WeatherStationNotFoundException;
 import com.fujitsu.fooddelivery.feeservice.model.Location;
+import com.fujitsu.fooddelivery.feeservice.representation.SimplifiedLocationResponse;
 
 import java.util.List;
 
@@ -19,6 +20,11 @@ public interface LocationCrudService {
      * @return list of all Location objects that were fetched
      */
     List<Location> getAllLocations();
+    /**
+     * Fetches the ID, country, city and currency of all locations from the persistent storage without their fee rules
+     * @return list of SimplifiedLocationResponse objects
+     */
+    List<SimplifiedLocationResponse> getAllLocationSummaries();
     /**
      * Attempts to find and return a location with given ID
      * @param id specifies the ID to use for query
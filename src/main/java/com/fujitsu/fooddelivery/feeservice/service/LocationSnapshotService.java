@@ -0,0 +1,37 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * LocationSnapshotService is responsible for keeping an immutable in-memory snapshot of all locations,
+ * which is used for answering fee quotes without querying the persistence repository
+ */
+public interface LocationSnapshotService {
+    /**
+     * Attempt to find a location snapshot by given city name, the lookup is case insensitive
+     * @param city specifies the city name to use for querying
+     * @return an Optional containing the snapshot or an empty Optional if no such city exists
+     */
+    Optional<LocationSnapshot> findByCity(String city);
+
+    /**
+     * Attempt to find a location snapshot by given location ID
+     * @param id specifies the location ID to use for querying
+     * @return an Optional containing the snapshot or an empty Optional if no such location exists
+     */
+    Optional<LocationSnapshot> findById(Integer id);
+
+    /**
+     * Returns snapshots of all locations
+     * @return an unmodifiable collection of all location snapshots
+     */
+    Collection<LocationSnapshot> findAll();
+
+    /**
+     * Rebuilds the whole snapshot from the persistence repository
+     */
+    void reload();
+}
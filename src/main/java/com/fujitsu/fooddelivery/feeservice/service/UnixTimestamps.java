@@ -0,0 +1,35 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Conversions between Unix timestamps used by the API and local date times used by stored weather observations,
+ * rule validity periods and current quotes.<br>
+ * All local date times are in the zone of the application clock, thus Unix timestamps are converted with the same zone.
+ * Otherwise a historical quote of the current instant would be evaluated at a different local time than a current quote.
+ */
+public final class UnixTimestamps {
+    private UnixTimestamps() {}
+
+    /**
+     * Converts a Unix timestamp into the local date time of given clock
+     * @param unixTimestamp specifies the number of seconds since the epoch
+     * @param clock specifies the clock whose zone is used
+     * @return a LocalDateTime instance
+     */
+    public static LocalDateTime toLocalDateTime(long unixTimestamp, Clock clock) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(unixTimestamp), clock.getZone());
+    }
+
+    /**
+     * Converts a local date time of given clock into a Unix timestamp
+     * @param time specifies the local date time to convert
+     * @param clock specifies the clock whose zone is used
+     * @return the number of seconds since the epoch
+     */
+    public static long toUnixTimestamp(LocalDateTime time, Clock clock) {
+        return time.atZone(clock.getZone()).toEpochSecond();
+    }
+}
@@ -0,0 +1,33 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProvider;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * WeatherApiFetchService is responsible for fetching data from external weather API providers.<br>
+ * Every provider is fetched within its own deadline with retries, and providers that keep failing are skipped
+ * for a cooldown period instead of being queried on every fetch.
+ */
+public interface WeatherApiFetchService {
+    /**
+     * Fetches all weather API providers concurrently
+     * @return a list of WeatherApiReader objects of the providers that responded in time, in provider priority order
+     */
+    List<WeatherApiReader> fetchAll();
+
+    /**
+     * Fetches all weather API providers concurrently without blocking the caller
+     * @return a future of the list of WeatherApiReader objects of the providers that responded in time, in provider priority order
+     */
+    CompletableFuture<List<WeatherApiReader>> fetchAllAsync();
+
+    /**
+     * Fetches a single weather API provider
+     * @param provider specifies the provider to fetch
+     * @return a WeatherApiReader object or null if the provider could not be fetched in time or is currently skipped
+     */
+    WeatherApiReader fetch(WeatherApiProvider provider);
+}
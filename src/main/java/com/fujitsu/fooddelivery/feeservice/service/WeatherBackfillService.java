@@ -0,0 +1,36 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import com.fujitsu.fooddelivery.feeservice.representation.WeatherBackfillStatus;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * WeatherBackfillService is responsible for importing historical weather observations from archived
+ * Ilmateenistus XML ticker API responses
+ */
+public interface WeatherBackfillService {
+    /**
+     * Starts backfilling the configured archive directory in the background
+     * @return true if the backfill was started, false if a backfill is already running
+     */
+    boolean start();
+
+    /**
+     * Returns the progress of the running or the most recent backfill
+     * @return a WeatherBackfillStatus instance
+     */
+    WeatherBackfillStatus getStatus();
+
+    /**
+     * Backfills all archived feed files (*.xml or *.xml.gz) found in given directory and its subdirectories.
+     * Files are parsed in parallel and observations of known weather stations are stored in batches, where an observation
+     * that is already stored is updated in place. Every stored file is recorded in the checkpoint file, and files recorded
+     * there are skipped, thus an interrupted backfill resumes where it stopped.
+     * @param directory specifies the directory containing archived feed files
+     * @param checkpoint specifies the checkpoint file, which is created when missing
+     * @return the final WeatherBackfillStatus
+     * @throws IOException when the directory can not be listed or the checkpoint file can not be read or written
+     */
+    WeatherBackfillStatus backfill(Path directory, Path checkpoint) throws IOException;
+}
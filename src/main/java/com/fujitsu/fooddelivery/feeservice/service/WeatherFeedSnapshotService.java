@@ -0,0 +1,22 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.WeatherFeedSnapshot;
+
+/**
+ * WeatherFeedSnapshotService is responsible for keeping a single shared snapshot of external weather API data,
+ * which is reused by weather station lookups, scheduled imports and database seeding
+ */
+public interface WeatherFeedSnapshotService {
+    /**
+     * Returns the current snapshot, fetching it first when there is none yet or it is older than the configured TTL.
+     * A snapshot nearing the end of its TTL is refreshed in the background while the current one is returned.
+     * @return the current WeatherFeedSnapshot, which is empty if no provider could ever be fetched
+     */
+    WeatherFeedSnapshot current();
+
+    /**
+     * Fetches all providers and publishes the result as the current snapshot
+     * @return the fetched snapshot or the previous snapshot if none of the providers could be fetched
+     */
+    WeatherFeedSnapshot refresh();
+}
@@ -0,0 +1,17 @@
+package com.fujitsu.fooddelivery.feeservice.service;
+
+/**
+ * WeatherObservationCompactionService is responsible for bounding the growth of stored weather observations.<br>
+ * Recent observations are kept as they are. Older observations are downsampled to the ones that change the fee of
+ * any location using the station, and observations past the maximum age are dropped.
+ */
+public interface WeatherObservationCompactionService {
+    /**
+     * Compacts the observations of all weather stations. Observations are deleted in bounded batches, each in its
+     * own short transaction, thus imports and fee quotes are not blocked for the duration of the whole run.
+     * Historical fee quotes newer than the maximum age yield the same fees after compaction as before,
+     * according to the fee rules configured at the time of compaction.
+     * @return the number of deleted observations
+     */
+    int compact();
+}
@@ -0,0 +1,7 @@
+package com.fujitsu.fooddelivery.feeservice.service.event;
+
+/**
+ * Application event which is published whenever a location or its business rules are created, updated or deleted
+ * @param locationId specifies the ID of the affected location or null when all locations may have changed
+ */
+public record LocationChangedEvent(Integer locationId) {}
@@ -0,0 +1,7 @@
+package com.fujitsu.fooddelivery.feeservice.service.event;
+
+/**
+ * Application event which is published after a weather data import has persisted new observations
+ * @param importedObservations specifies the number of observations that were persisted
+ */
+public record WeatherImportCompletedEvent(int importedObservations) {}
@@ -1,5 +1,42 @@
 package com.fujitsu.fooddelivery.feeservice.service.factory;
 
-public enum WeatherApiProvider {
-    ILMATEENISTUS,
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service provider interface of external weather data sources.<br>
+ * Implementations are registered in WeatherApiProviderRegistry, Spring components are registered automatically.
+ * Every provider is configured with the properties weatherapi.provider.&lt;name&gt;.endpoint, .priority and .enabled,
+ * which override the defaults of the implementation.
+ */
+public interface WeatherApiProvider {
+    /**
+     * @return unique lowercase name of the provider, used in the names of its configuration properties
+     */
+    String getName();
+
+    /**
+     * @return the endpoint used unless overridden with the endpoint property, null if the provider has no public endpoint
+     * and is therefore disabled until one is configured
+     */
+    String getDefaultEndpoint();
+
+    /**
+     * @return the priority used unless overridden with the priority property, providers with lower values are preferred
+     * for stations that several providers know
+     */
+    default int getDefaultPriority() {
+        return 100;
+    }
+
+    /**
+     * Reads a response of the provider
+     * @param input specifies the response body, which is not closed by this method
+     * @param knownFeedVersion specifies the feed version of the previously read response, null to always read the response
+     * @return a WeatherApiReader instance or null if the response carries the known feed version
+     * @throws IOException when the response could not be read or is malformed
+     */
+    WeatherApiReader read(InputStream input, String knownFeedVersion) throws IOException;
 }
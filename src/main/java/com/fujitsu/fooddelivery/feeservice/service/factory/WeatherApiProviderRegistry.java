@@ -0,0 +1,107 @@
+package com.fujitsu.fooddelivery.feeservice.service.factory;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of weather API providers and their configuration
+ */
+@Component
+public class WeatherApiProviderRegistry {
+    @Autowired(required = false)
+    private List<WeatherApiProvider> discoveredProviders = List.of();
+    @Autowired(required = false)
+    private Environment environment;
+    private final Map<String, WeatherApiProvider> providers = new ConcurrentHashMap<>();
+
+    public WeatherApiProviderRegistry() {
+    }
+
+    /**
+     * Constructs a registry outside of the application context
+     * @param providers specifies the providers to register
+     * @param environment specifies the environment to read provider configuration from, null to use provider defaults
+     */
+    public WeatherApiProviderRegistry(List<WeatherApiProvider> providers, Environment environment) {
+        this.environment = environment;
+        providers.forEach(this::register);
+    }
+
+    @PostConstruct
+    public void registerDiscoveredProviders() {
+        discoveredProviders.forEach(this::register);
+    }
+
+    /**
+     * Registers a weather API provider
+     * @param provider specifies the provider to register
+     * @throws IllegalArgumentException when another provider with the same name is already registered
+     */
+    public void register(WeatherApiProvider provider) {
+        WeatherApiProvider existing = providers.putIfAbsent(provider.getName(), provider);
+        if (existing != null && existing != provider)
+            throw new IllegalArgumentException("Weather API provider '" + provider.getName() + "' is already registered");
+    }
+
+    /**
+     * Attempt to find a registered provider by name
+     * @param name specifies the provider name
+     * @return an Optional containing the provider or an empty Optional if no such provider is registered
+     */
+    public Optional<WeatherApiProvider> findByName(String name) {
+        return Optional.ofNullable(providers.get(name));
+    }
+
+    /**
+     * Returns all providers that are enabled and have an endpoint
+     * @return a list of providers ordered by priority, then by name
+     */
+    public List<WeatherApiProvider> findEnabled() {
+        List<WeatherApiProvider> enabled = new ArrayList<>();
+        for (WeatherApiProvider provider : providers.values()) {
+            if (isEnabled(provider) && getEndpoint(provider) != null)
+                enabled.add(provider);
+        }
+        enabled.sort(Comparator.comparingInt(this::getPriority).thenComparing(WeatherApiProvider::getName));
+        return enabled;
+    }
+
+    /**
+     * @param provider specifies the provider
+     * @return the configured endpoint or the default endpoint of the provider if none is configured
+     */
+    public String getEndpoint(WeatherApiProvider provider) {
+        return getProperty(provider, "endpoint", String.class, provider.getDefaultEndpoint());
+    }
+
+    /**
+     * @param provider specifies the provider
+     * @return the configured priority or the default priority of the provider if none is configured
+     */
+    public int getPriority(WeatherApiProvider provider) {
+        return getProperty(provider, "priority", Integer.class, provider.getDefaultPriority());
+    }
+
+    /**
+     * @param provider specifies the provider
+     * @return false if the provider has been disabled in configuration, true otherwise
+     */
+    public boolean isEnabled(WeatherApiProvider provider) {
+        return getProperty(provider, "enabled", Boolean.class, true);
+    }
+
+    private <T> T getProperty(WeatherApiProvider provider, String property, Class<T> type, T defaultValue) {
+        if (environment == null)
+            return defaultValue;
+        return environment.getProperty("weatherapi.provider." + provider.getName() + "." + property, type, defaultValue);
+    }
+}
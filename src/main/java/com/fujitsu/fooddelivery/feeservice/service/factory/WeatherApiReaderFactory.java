@@ -1,63 +1,188 @@
 package com.fujitsu.fooddelivery.feeservice.service.factory;
 
-import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusApiReader;
 import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
-import org.dom4j.Document;
-import org.dom4j.DocumentException;
-import org.dom4j.io.SAXReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
 
 /**
- * Factory class for constructing objects that implement WeatherApiReader interface
+ * Factory class for constructing objects that implement WeatherApiReader interface.<br>
+ * Responses are fetched with a shared HTTP client that keeps connections alive between fetches. Requests are
+ * conditional on the validators of the previous response, and an unchanged response yields the previously
+ * constructed reader without parsing the response again. The whole response, including its body, must be received
+ * within the read timeout, otherwise the connection is closed.
  */
+@Component
 public class WeatherApiReaderFactory {
     private final Logger logger;
+    @Autowired
+    private WeatherApiProviderRegistry weatherApiProviderRegistry;
+    private final Map<String, FeedState> feedStates = new ConcurrentHashMap<>();
+    private volatile HttpClient httpClient;
+    @Value("${weatherapi.fetch.connect-timeout:5s}")
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    @Value("${weatherapi.fetch.read-timeout:10s}")
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Validators of the last successful response of a provider together with the reader constructed from it
+     */
+    private record FeedState(String eTag, String lastModified, WeatherApiReader reader) {}
+
     public WeatherApiReaderFactory() {
         this.logger = Logger.getLogger(WeatherApiProvider.class.getName());
     }
 
+    /**
+     * Constructs a factory outside of the application context
+     * @param weatherApiProviderRegistry specifies the registry of providers and their configuration
+     */
+    public WeatherApiReaderFactory(WeatherApiProviderRegistry weatherApiProviderRegistry) {
+        this();
+        this.weatherApiProviderRegistry = weatherApiProviderRegistry;
+    }
+
     /**
      * Constructs a new WeatherApiReader instance
      * @param provider API provider to use
-     * @return a valid WeatherApiReader instance if the object construction was successful, null value otherwise
+     * @return a valid WeatherApiReader instance if the object construction was successful, null value otherwise.
+     * The previously returned instance is returned again when the provider data has not changed since.
      */
     public WeatherApiReader makeWeatherApiReader(WeatherApiProvider provider) {
-        if (provider == WeatherApiProvider.ILMATEENISTUS) {
-            return makeIlmateenistusApiReader();
+        String endpoint = weatherApiProviderRegistry.getEndpoint(provider);
+        if (endpoint == null) {
+            logger.severe("Weather API provider '" + provider.getName() + "' has no endpoint configured");
+            return null;
+        }
+
+        FeedState previous = feedStates.get(provider.getName());
+        long deadlineNanos = System.nanoTime() + readTimeout.toNanos();
+        try {
+            HttpResponse<InputStream> response = send(endpoint, previous);
+            // the request timeout only covers the response headers, a body that stalls is cut off at the deadline
+            CompletableFuture<Void> bodyRead = new CompletableFuture<>();
+            bodyRead.orTimeout(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS).whenComplete((done, e) -> {
+                if (e != null)
+                    closeStalledBody(provider, response.body());
+            });
+            try (InputStream input = decode(response)) {
+                if (response.statusCode() == 304 && previous != null) {
+                    logger.info("Weather API provider '" + provider.getName() + "' has not changed since the previous fetch");
+                    return previous.reader();
+                }
+                if (response.statusCode() != 200) {
+                    logger.severe("Weather API provider '" + provider.getName() + "' responded with HTTP status " + response.statusCode());
+                    return null;
+                }
+
+                WeatherApiReader reader = provider.read(input, previous != null ? previous.reader().getFeedVersion() : null);
+                if (reader == null) {
+                    logger.info("Weather API provider '" + provider.getName() + "' feed version has not changed since the previous fetch");
+                    reader = previous.reader();
+                }
+                else {
+                    logger.info("Constructed weather API reader of provider '" + provider.getName() + "'");
+                }
+
+                feedStates.put(provider.getName(), new FeedState(
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null),
+                    reader
+                ));
+                return reader;
+            }
+            finally {
+                bodyRead.complete(null);
+            }
+        }
+        catch (IllegalArgumentException e) {
+            logger.severe("Invalid endpoint of weather API provider '" + provider.getName() + "': " + e.getMessage());
+        }
+        catch (IOException e) {
+            logger.severe("Could not read weather data from weather API provider '" + provider.getName() + "': " + e.getMessage());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.severe("Interrupted while querying for weather data from weather API provider '" + provider.getName() + "'");
         }
 
         return null;
     }
 
     /**
-     * Constructs all weather API reader implementations
-     * @return a list containing all different possible WeatherApiReader implementations
+     * Constructs readers of all enabled providers one after another.<br>
+     * Prefer WeatherApiFetchService, which queries the providers concurrently and skips unhealthy ones.
+     * @return a list containing WeatherApiReader instances of providers that could be read, in priority order
      */
     public List<WeatherApiReader> makeAllWeatherApiReaders() {
         List<WeatherApiReader> weatherApiReaders = new ArrayList<>();
-        weatherApiReaders.add(makeIlmateenistusApiReader());
+        for (WeatherApiProvider provider : weatherApiProviderRegistry.findEnabled()) {
+            WeatherApiReader reader = makeWeatherApiReader(provider);
+            if (reader != null)
+                weatherApiReaders.add(reader);
+        }
         return weatherApiReaders;
     }
 
-    private WeatherApiReader makeIlmateenistusApiReader() {
-        try {
-            SAXReader reader = new SAXReader();
-            Document document = reader.read(new URL(IlmateenistusApiReader.ENDPOINT));
-            logger.info("Trying to construct Ilmateenistus API reader");
-            return new IlmateenistusApiReader(document);
+    private HttpClient getHttpClient() {
+        HttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                if (httpClient == null) {
+                    httpClient = HttpClient.newBuilder()
+                        .connectTimeout(connectTimeout)
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .build();
+                }
+                client = httpClient;
+            }
         }
-        catch (DocumentException e) {
-            logger.severe("Ilmateenistus XML ticker has returned a malformed document: " + e.getMessage());
+        return client;
+    }
+
+    private HttpResponse<InputStream> send(String endpoint, FeedState previous) throws IOException, InterruptedException {
+        // without a timeout a provider that accepts the connection but never responds would block forever
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(endpoint))
+            .timeout(readTimeout)
+            .header("Accept-Encoding", "gzip")
+            .GET();
+        if (previous != null && previous.eTag() != null)
+            request.header("If-None-Match", previous.eTag());
+        if (previous != null && previous.lastModified() != null)
+            request.header("If-Modified-Since", previous.lastModified());
+        return getHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    private void closeStalledBody(WeatherApiProvider provider, InputStream body) {
+        logger.severe("Weather API provider '" + provider.getName() + "' did not send its response within " + readTimeout);
+        try {
+            body.close();
         }
-        catch (MalformedURLException e) {
-            logger.severe("MalformedURLException thrown when querying for weather data from Ilmateenistus XML ticker: " + e.getMessage());
+        catch (IOException e) {
+            logger.warning("Could not close the response of weather API provider '" + provider.getName() + "': " + e.getMessage());
         }
+    }
 
-        return null;
+    private static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+            .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+            .orElse(false);
+        return gzip ? new GZIPInputStream(response.body()) : response.body();
     }
 }
@@ -0,0 +1,35 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.representation.CacheRegionUsage;
+import com.fujitsu.fooddelivery.feeservice.service.CacheStatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Component(value = "cacheStatisticsService")
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<CacheRegionUsage> findAll() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+
+        List<CacheRegionUsage> usages = new ArrayList<>();
+        for (String region : regions) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null)
+                usages.add(new CacheRegionUsage(region, regionStatistics.getHitCount(), regionStatistics.getMissCount(), regionStatistics.getPutCount()));
+        }
+        return usages;
+    }
+}
@@ -0,0 +1,141 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
+import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.CurrentFeeMatrixService;
+import com.fujitsu.fooddelivery.feeservice.service.FeeCalculationService;
+import com.fujitsu.fooddelivery.feeservice.service.LocationSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.event.LocationChangedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.event.WeatherImportCompletedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.CurrentFee;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.CurrentFeeMatrix;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Implementation class for CurrentFeeMatrixService
+ */
+@Component(value = "currentFeeMatrixService")
+public class CurrentFeeMatrixServiceImpl implements CurrentFeeMatrixService {
+    @Autowired
+    private LocationSnapshotService locationSnapshotService;
+    @Autowired
+    private WeatherObservationRepository weatherObservationRepository;
+    @Autowired
+    private FeeCalculationService feeCalculationService;
+    @Autowired
+    private Clock clock;
+    private volatile CurrentFeeMatrix matrix;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Logger logger = Logger.getLogger(CurrentFeeMatrixServiceImpl.class.getName());
+
+    @Override
+    public Optional<CurrentFee> findCurrentFee(Integer locationId, VehicleType type) {
+        return current().find(locationId, type);
+    }
+
+    @Override
+    public CurrentFeeMatrix findCurrentMatrix() {
+        return current();
+    }
+
+    @Override
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            final LocalDateTime now = LocalDateTime.now(clock);
+            Collection<LocationSnapshot> locations = locationSnapshotService.findAll();
+
+            Set<Integer> stationIds = new HashSet<>();
+            for (LocationSnapshot location : locations) {
+                if (location.getWeatherStation() != null)
+                    stationIds.add(location.getWeatherStation().getId());
+            }
+
+            Map<Integer, WeatherObservation> observations = new HashMap<>();
+            if (!stationIds.isEmpty()) {
+                for (WeatherObservation observation : weatherObservationRepository.findLatestByStationIds(stationIds))
+                    observations.merge(observation.getStation().getId(), observation, (a, b) -> a.getId() > b.getId() ? a : b);
+            }
+
+            Map<Integer, CurrentFee[]> fees = new HashMap<>();
+            Map<Integer, String> eTags = new HashMap<>();
+            LocalDateTime expiresAt = null;
+            for (LocationSnapshot location : locations) {
+                WeatherObservation observation = location.getWeatherStation() == null ? null : observations.get(location.getWeatherStation().getId());
+                CurrentFee[] locationFees = new CurrentFee[VehicleType.values().length];
+                for (VehicleType type : VehicleType.values()) {
+                    try {
+                        BigDecimal fee = feeCalculationService.calculate(location.getRules().at(now), type, observation);
+                        locationFees[type.ordinal()] = new CurrentFee(fee, null);
+                    }
+                    catch (ForbiddenVehicleException e) {
+                        locationFees[type.ordinal()] = new CurrentFee(null, e.getMessage());
+                    }
+                }
+                fees.put(location.getId(), locationFees);
+                eTags.put(location.getId(), location.quoteETag(now, observation));
+
+                LocalDateTime rulesExpireAt = location.getRules().nextChangeAfter(now);
+                if (rulesExpireAt != null && (expiresAt == null || rulesExpireAt.isBefore(expiresAt)))
+                    expiresAt = rulesExpireAt;
+            }
+
+            matrix = new CurrentFeeMatrix(fees, eTags, expiresAt);
+            logger.info("Current fee matrix rebuilt for " + fees.size() + " location(s)");
+        }
+        finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private CurrentFeeMatrix current() {
+        CurrentFeeMatrix current = matrix;
+        if (current == null || current.isExpired(LocalDateTime.now(clock))) {
+            rebuild();
+            current = matrix;
+        }
+        return current;
+    }
+
+    /**
+     * Computes the fee matrix once the application has been started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes the fee matrix after new weather observations have been imported
+     * @param event specifies the import completion event
+     */
+    @EventListener
+    public void onWeatherImportCompleted(WeatherImportCompletedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Recomputes the fee matrix after location rules have changed, runs after the location snapshot has been patched
+     * @param event specifies the location change event
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onLocationChanged(LocationChangedEvent event) {
+        rebuild();
+    }
+}
@@ -1,17 +1,29 @@
 package com.fujitsu.fooddelivery.feeservice.service.impl;
 
 import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
-import com.fujitsu.fooddelivery.feeservice.model.ExtraFee;
 import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
 import com.fujitsu.fooddelivery.feeservice.model.Location;
 import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
 import com.fujitsu.fooddelivery.feeservice.service.FeeCalculationService;
+import com.fujitsu.fooddelivery.feeservice.service.event.LocationChangedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.rules.CompiledFeeRules;
+import com.fujitsu.fooddelivery.feeservice.service.rules.FeeRuleTimeline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component(value = "feeCalculationService")
 public class FeeCalculationServiceImpl implements FeeCalculationService {
+    @Autowired
+    private Clock clock;
+    private final Map<Integer, FeeRuleTimeline> timelines = new ConcurrentHashMap<>();
+
     private BigDecimal pickRbf(Location location, VehicleType type) {
         return switch (type) {
             case CAR -> location.getRegionalBaseFee().getCar();
@@ -22,26 +34,34 @@ public class FeeCalculationServiceImpl implements FeeCalculationService {
 
     @Override
     public BigDecimal calculate(Location location, VehicleType type, WeatherObservation observation) throws ForbiddenVehicleException {
-        BigDecimal fee = pickRbf(location, type);
         if (observation == null)
             return pickRbf(location, type);
 
-        for (ExtraFee extraFee : location.getExtraFees()) {
-            if (extraFee.isValid() && extraFee.matchesObservation(observation)) {
-                switch (extraFee.checkVehicleApplicability(type)) {
-                    case APPLICABLE:
-                        fee = fee.add(extraFee.getExtraFee());
-                        break;
+        return findCompiledRules(location, LocalDateTime.now(clock)).calculate(type, observation);
+    }
+
+    @Override
+    public BigDecimal calculate(CompiledFeeRules rules, VehicleType type, WeatherObservation observation) throws ForbiddenVehicleException {
+        return rules.calculate(type, observation);
+    }
 
-                    case FORBIDDEN:
-                        throw new ForbiddenVehicleException("Usage of selected vehicle type is forbidden");
+    /**
+     * Drops the rule timeline of the changed location so that it would be rebuilt upon next calculation
+     * @param event specifies the location change event
+     */
+    @EventListener
+    public void onLocationChanged(LocationChangedEvent event) {
+        if (event.locationId() == null)
+            timelines.clear();
+        else
+            timelines.remove(event.locationId());
+    }
 
-                    default:
-                        break;
-                }
-            }
-        }
+    private CompiledFeeRules findCompiledRules(Location location, LocalDateTime time) {
+        // transient locations cannot be tracked for changes, thus they are compiled every time
+        if (location.getId() == null)
+            return CompiledFeeRules.compile(location, time);
 
-        return fee;
+        return timelines.computeIfAbsent(location.getId(), id -> FeeRuleTimeline.build(location)).at(time);
     }
 }
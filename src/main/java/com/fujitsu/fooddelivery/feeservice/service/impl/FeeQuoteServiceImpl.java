@@ -0,0 +1,155 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
+import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepositoryCustom.AsOfLookup;
+import com.fujitsu.fooddelivery.feeservice.representation.BadRequestErrorResponse;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteRequest;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteResult;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeResponse;
+import com.fujitsu.fooddelivery.feeservice.service.FeeCalculationService;
+import com.fujitsu.fooddelivery.feeservice.service.FeeQuoteService;
+import com.fujitsu.fooddelivery.feeservice.service.LocationSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.UnixTimestamps;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Implementation class for FeeQuoteService
+ */
+@Component(value = "feeQuoteService")
+public class FeeQuoteServiceImpl implements FeeQuoteService {
+    @Autowired
+    private LocationSnapshotService locationSnapshotService;
+    @Autowired
+    private WeatherObservationRepository weatherObservationRepository;
+    @Autowired
+    private FeeCalculationService feeCalculationService;
+    @Autowired
+    private Clock clock;
+    private final Logger logger = Logger.getLogger(FeeQuoteServiceImpl.class.getName());
+
+    private record ResolvedRequest(LocationSnapshot location, VehicleType type, LocalDateTime timestamp) {}
+
+    @Override
+    public List<FeeQuoteResult> quoteAll(List<FeeQuoteRequest> requests) {
+        // current quotes of the whole batch share a single point in time
+        final LocalDateTime now = LocalDateTime.now(clock);
+
+        // resolve locations and vehicle types, collecting the distinct observation lookups along the way
+        Map<String, Optional<LocationSnapshot>> locations = new HashMap<>();
+        List<ResolvedRequest> resolved = new ArrayList<>(requests.size());
+        List<FeeQuoteResult> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        Set<Integer> latestStationIds = new HashSet<>();
+        Set<AsOfLookup> asOfLookups = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            FeeQuoteRequest request = requests.get(i);
+            resolved.add(null);
+            if (request == null) {
+                results.set(i, FeeQuoteResult.failure(new FeeQuoteRequest(null, null, null), new BadRequestErrorResponse("Missing fee quote request")));
+                continue;
+            }
+
+            Optional<LocationSnapshot> location = locations.computeIfAbsent(String.valueOf(request.city()),
+                city -> locationSnapshotService.findByCity(request.city()));
+            if (location.isEmpty()) {
+                results.set(i, FeeQuoteResult.failure(request, new BadRequestErrorResponse("Invalid city name '" + request.city() + "'")));
+                continue;
+            }
+
+            VehicleType type = parseVehicleType(request.vehicle());
+            if (type == null) {
+                results.set(i, FeeQuoteResult.failure(request, new BadRequestErrorResponse("Invalid vehicle argument '" + request.vehicle() + "'")));
+                continue;
+            }
+
+            LocalDateTime timestamp;
+            try {
+                timestamp = request.unixTimestamp() == null ? null
+                    : UnixTimestamps.toLocalDateTime(request.unixTimestamp(), clock);
+            }
+            catch (DateTimeException e) {
+                results.set(i, FeeQuoteResult.failure(request, new BadRequestErrorResponse("Invalid unixTimestamp argument '" + request.unixTimestamp() + "'")));
+                continue;
+            }
+            resolved.set(i, new ResolvedRequest(location.get(), type, timestamp));
+
+            Integer stationId = location.get().getWeatherStation() == null ? null : location.get().getWeatherStation().getId();
+            if (stationId != null && timestamp == null)
+                latestStationIds.add(stationId);
+            else if (stationId != null)
+                asOfLookups.add(new AsOfLookup(stationId, timestamp));
+        }
+
+        Map<Integer, WeatherObservation> latest = findLatestObservations(latestStationIds);
+        Map<AsOfLookup, WeatherObservation> asOf = findAsOfObservations(asOfLookups);
+        logger.info("Quoting " + requests.size() + " fee request(s) with " + latestStationIds.size() + " latest and " + asOfLookups.size() + " historical observation lookup(s)");
+
+        for (int i = 0; i < requests.size(); i++) {
+            ResolvedRequest request = resolved.get(i);
+            if (request == null)
+                continue;
+
+            Integer stationId = request.location().getWeatherStation() == null ? null : request.location().getWeatherStation().getId();
+            WeatherObservation observation = request.timestamp() == null ? latest.get(stationId) : asOf.get(new AsOfLookup(stationId, request.timestamp()));
+            try {
+                // historical quotes use the rules that were valid at the requested point in time
+                LocalDateTime time = request.timestamp() == null ? now : request.timestamp();
+                BigDecimal fee = feeCalculationService.calculate(request.location().getRules().at(time), request.type(), observation);
+                results.set(i, FeeQuoteResult.success(requests.get(i), new FeeResponse(fee, request.location().getCurrency())));
+            }
+            catch (ForbiddenVehicleException e) {
+                results.set(i, FeeQuoteResult.failure(requests.get(i), new BadRequestErrorResponse(e.getMessage())));
+            }
+        }
+
+        return results;
+    }
+
+    private VehicleType parseVehicleType(String vehicle) {
+        if (vehicle == null)
+            return null;
+        try {
+            return VehicleType.valueOf(vehicle.toUpperCase());
+        }
+        catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /*
+        All current observations are fetched with a single query, when a station has several observations
+        with the same most recent timestamp the one with the highest ID is used
+     */
+    private Map<Integer, WeatherObservation> findLatestObservations(Set<Integer> stationIds) {
+        Map<Integer, WeatherObservation> observations = new HashMap<>();
+        if (stationIds.isEmpty())
+            return observations;
+
+        for (WeatherObservation observation : weatherObservationRepository.findLatestByStationIds(stationIds)) {
+            observations.merge(observation.getStation().getId(), observation,
+                (a, b) -> a.getId() > b.getId() ? a : b);
+        }
+        return observations;
+    }
+
+    /*
+        Historical lookups are deduplicated by (station, timestamp) pair and fetched with a single query
+     */
+    private Map<AsOfLookup, WeatherObservation> findAsOfObservations(Set<AsOfLookup> lookups) {
+        if (lookups.isEmpty())
+            return new HashMap<>();
+        return weatherObservationRepository.findAsOf(lookups);
+    }
+}
@@ -0,0 +1,141 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
+import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.representation.BadRequestErrorResponse;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeResponse;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeSeriesPoint;
+import com.fujitsu.fooddelivery.feeservice.service.FeeCalculationService;
+import com.fujitsu.fooddelivery.feeservice.service.FeeSeriesService;
+import com.fujitsu.fooddelivery.feeservice.service.UnixTimestamps;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.CurrentFee;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Implementation class for FeeSeriesService
+ */
+@Component(value = "feeSeriesService")
+public class FeeSeriesServiceImpl implements FeeSeriesService {
+    @Autowired
+    private WeatherObservationRepository weatherObservationRepository;
+    @Autowired
+    private FeeCalculationService feeCalculationService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private Clock clock;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${feeseries.stream-timeout:60s}")
+    private Duration streamTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Mutable state of a single series, remembers the last emitted outcome per vehicle type
+     */
+    private class Series {
+        private final LocationSnapshot location;
+        private final List<VehicleType> types;
+        private final Consumer<FeeSeriesPoint> sink;
+        private final CurrentFee[] emitted = new CurrentFee[VehicleType.values().length];
+        private long count = 0;
+
+        Series(LocationSnapshot location, Collection<VehicleType> types, Consumer<FeeSeriesPoint> sink) {
+            this.location = location;
+            this.types = List.copyOf(types);
+            this.sink = sink;
+        }
+
+        void emit(LocalDateTime time, WeatherObservation observation) {
+            long unixTimestamp = UnixTimestamps.toUnixTimestamp(time, clock);
+            Integer observationId = observation == null ? null : observation.getId();
+            for (VehicleType type : types) {
+                CurrentFee outcome;
+                try {
+                    BigDecimal fee = feeCalculationService.calculate(location.getRules().at(time), type, observation);
+                    outcome = new CurrentFee(fee, null);
+                }
+                catch (ForbiddenVehicleException e) {
+                    outcome = new CurrentFee(null, e.getMessage());
+                }
+
+                if (outcome.equals(emitted[type.ordinal()]))
+                    continue;
+
+                emitted[type.ordinal()] = outcome;
+                String vehicle = type.name().toLowerCase();
+                sink.accept(outcome.isForbidden()
+                    ? FeeSeriesPoint.failure(unixTimestamp, vehicle, observationId, new BadRequestErrorResponse(outcome.forbiddenMessage()))
+                    : FeeSeriesPoint.success(unixTimestamp, vehicle, observationId, new FeeResponse(outcome.fee(), location.getCurrency())));
+                count++;
+            }
+        }
+
+        /*
+            Rules can change validity between two observations, the fee is re-evaluated at every such change point
+         */
+        void emitRuleChanges(LocalDateTime after, LocalDateTime until, WeatherObservation observation) {
+            for (LocalDateTime time = location.getRules().nextChangeAfter(after); time != null && time.isBefore(until); time = location.getRules().nextChangeAfter(time))
+                emit(time, observation);
+        }
+    }
+
+    @Override
+    public long streamSeries(LocationSnapshot location, Collection<VehicleType> types, LocalDateTime from, LocalDateTime to, Consumer<FeeSeriesPoint> sink) {
+        Series series = new Series(location, types, sink);
+        if (location.getWeatherStation() == null) {
+            series.emit(from, null);
+            series.emitRuleChanges(from, to, null);
+            return series.count;
+        }
+
+        // the cursor holds a pooled connection, a slow consumer must not hold it indefinitely
+        long deadline = System.nanoTime() + streamTimeout.toNanos();
+        transactionTemplate.execute(status -> {
+            WeatherObservation current = weatherObservationRepository
+                .findFirstByStationAndTimestampLessThanEqualOrderByTimestampDesc(location.getWeatherStation(), from)
+                .orElse(null);
+            LocalDateTime time = from;
+            series.emit(time, current);
+
+            try (Stream<WeatherObservation> observations = weatherObservationRepository.streamByStationBetween(location.getWeatherStation(), from, to)) {
+                Iterator<WeatherObservation> iterator = observations.iterator();
+                while (iterator.hasNext()) {
+                    if (System.nanoTime() - deadline > 0)
+                        throw new QueryTimeoutException("Fee series of '" + location.getCity() + "' was not streamed within " + streamTimeout);
+
+                    WeatherObservation observation = iterator.next();
+                    series.emitRuleChanges(time, observation.getTimestamp(), current);
+
+                    // processed observations are not needed anymore, keep the persistence context from growing
+                    if (current != null)
+                        entityManager.detach(current);
+                    current = observation;
+                    time = observation.getTimestamp();
+                    series.emit(time, current);
+                }
+            }
+
+            series.emitRuleChanges(time, to, current);
+            return null;
+        });
+        return series.count;
+    }
+}
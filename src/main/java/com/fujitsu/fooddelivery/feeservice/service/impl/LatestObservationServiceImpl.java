@@ -0,0 +1,92 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.LatestObservationService;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LatestObservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Implementation class for LatestObservationService.<br>
+ * Readers access the registry lock-free. Writers merge observations per station, so that a concurrent reload
+ * can not replace a more recent observation with an older one. Stations without any observations are remembered as
+ * well, so that current quotes of such stations do not query the repository until the station is updated.
+ */
+@Component(value = "latestObservationService")
+public class LatestObservationServiceImpl implements LatestObservationService {
+    @Autowired
+    private WeatherObservationRepository weatherObservationRepository;
+    @Autowired
+    private WeatherStationRepository weatherStationRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private final Map<Integer, LatestObservation> latestByStationId = new ConcurrentHashMap<>();
+    private final Set<Integer> stationIdsWithoutObservations = ConcurrentHashMap.newKeySet();
+    private final Logger logger = Logger.getLogger(LatestObservationServiceImpl.class.getName());
+
+    @Override
+    public Optional<WeatherObservation> findLatest(WeatherStation station) {
+        if (station == null)
+            return Optional.empty();
+
+        LatestObservation latest = latestByStationId.get(station.getId());
+        if (latest == null && !stationIdsWithoutObservations.contains(station.getId())) {
+            update(List.of(station.getId()));
+            latest = latestByStationId.get(station.getId());
+        }
+        return Optional.ofNullable(latest).map(LatestObservation::toWeatherObservation);
+    }
+
+    @Override
+    public void update(Collection<Integer> stationIds) {
+        if (stationIds.isEmpty())
+            return;
+
+        List<LatestObservation> observations = transactionTemplate.execute(status -> weatherObservationRepository
+            .findLatestByStationIds(stationIds).stream()
+            .map(LatestObservation::of)
+            .toList());
+        if (observations == null)
+            return;
+
+        Set<Integer> withoutObservations = new HashSet<>(stationIds);
+        for (LatestObservation observation : observations) {
+            register(observation);
+            withoutObservations.remove(observation.stationId());
+            stationIdsWithoutObservations.remove(observation.stationId());
+        }
+        stationIdsWithoutObservations.addAll(withoutObservations);
+    }
+
+    @Override
+    public void reload() {
+        List<Integer> stationIds = weatherStationRepository.findAll().stream().map(WeatherStation::getId).toList();
+        // forgets removed stations, the stations that still lack observations are added back by the update
+        stationIdsWithoutObservations.clear();
+        update(stationIds);
+        logger.info("Latest observation registry loaded with " + latestByStationId.size() + " station(s)");
+    }
+
+    /**
+     * Bootstraps the registry once the application has been started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    private void register(LatestObservation observation) {
+        latestByStationId.merge(observation.stationId(), observation,
+            (registered, candidate) -> candidate.timestamp().isBefore(registered.timestamp()) ? registered : candidate);
+    }
+}
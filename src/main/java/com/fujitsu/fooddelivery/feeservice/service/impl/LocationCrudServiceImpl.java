@@ -8,10 +8,13 @@ import com.fujitsu.fooddelivery.feeservice.model.RegionalBaseFee;
 import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
 import com.fujitsu.fooddelivery.feeservice.model.repository.LocationRepository;
 import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import com.fujitsu.fooddelivery.feeservice.representation.SimplifiedLocationResponse;
 import com.fujitsu.fooddelivery.feeservice.service.LocationCrudService;
 import com.fujitsu.fooddelivery.feeservice.service.WeatherStationQueryService;
+import com.fujitsu.fooddelivery.feeservice.service.event.LocationChangedEvent;
 import jakarta.validation.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.util.HashSet;
@@ -28,6 +31,8 @@ public class LocationCrudServiceImpl implements LocationCrudService {
     private LocationRepository locationRepository;
     @Autowired
     private WeatherStationQueryService weatherStationQueryService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     private final Validator validator;
 
     public LocationCrudServiceImpl() {
@@ -56,16 +61,23 @@ public class LocationCrudServiceImpl implements LocationCrudService {
                 throw new WeatherStationNotFoundException("Weather station with wmo code " + location.getWeatherStation().getWmoCode() + " does not exist");
             location.setWeatherStation(station);
         }
-        return locationRepository.save(location);
+        Location saved = locationRepository.save(location);
+        eventPublisher.publishEvent(new LocationChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Override
     public List<Location> getAllLocations() {
-        return locationRepository.findAll();
+        return locationRepository.findAllWithRules();
+    }
+
+    @Override
+    public List<SimplifiedLocationResponse> getAllLocationSummaries() {
+        return locationRepository.findAllSummaries();
     }
 
     @Override
-    public Location getLocationById(Integer id) { return locationRepository.findById(id).orElse(null); }
+    public Location getLocationById(Integer id) { return locationRepository.findWithRulesById(id).orElse(null); }
 
     @Override
     public Location updateLocation(Location location, Integer id) throws InvalidIdentifierException, ConstraintViolationException {
@@ -121,7 +133,9 @@ public class LocationCrudServiceImpl implements LocationCrudService {
         if (location.getCurrency() != null && !location.getCurrency().isEmpty())
             dbLocation.setCurrency(location.getCurrency());
 
-        return locationRepository.save(dbLocation);
+        Location saved = locationRepository.save(dbLocation);
+        eventPublisher.publishEvent(new LocationChangedEvent(id));
+        return saved;
     }
 
     @Override
@@ -129,5 +143,6 @@ public class LocationCrudServiceImpl implements LocationCrudService {
         if (!locationRepository.existsById(id))
             throw new InvalidIdentifierException("Cannot delete location with id " + id + ", no entry is available for deletion");
         locationRepository.deleteById(id);
+        eventPublisher.publishEvent(new LocationChangedEvent(id));
     }
 }
@@ -0,0 +1,143 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.model.Location;
+import com.fujitsu.fooddelivery.feeservice.model.repository.LocationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.LocationSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.event.LocationChangedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Implementation class for LocationSnapshotService.<br>
+ * Readers access the current snapshot lock-free, while writers (CRUD changes, reloads) are serialized and publish
+ * a new immutable index with a single atomic reference swap.
+ */
+@Component(value = "locationSnapshotService")
+public class LocationSnapshotServiceImpl implements LocationSnapshotService {
+    @Autowired
+    private LocationRepository locationRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private final AtomicReference<Index> index = new AtomicReference<>();
+    // writers hold the lock during database access, which unlike synchronized does not pin virtual threads
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Logger logger = Logger.getLogger(LocationSnapshotServiceImpl.class.getName());
+
+    /**
+     * Immutable lookup tables of a single snapshot generation
+     */
+    private record Index(Map<Integer, LocationSnapshot> byId, Map<String, LocationSnapshot> byCity) {
+        static Index of(Map<Integer, LocationSnapshot> byId) {
+            // when multiple locations share the same normalized city name the one with the lowest ID wins
+            Map<String, LocationSnapshot> byCity = new HashMap<>();
+            new TreeMap<>(byId).values().forEach(snapshot -> byCity.putIfAbsent(LocationSnapshot.normalizeCity(snapshot.getCity()), snapshot));
+            return new Index(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byCity));
+        }
+
+        Index with(Integer id, LocationSnapshot snapshot) {
+            Map<Integer, LocationSnapshot> copy = new HashMap<>(byId);
+            if (snapshot == null)
+                copy.remove(id);
+            else
+                copy.put(id, snapshot);
+            return of(copy);
+        }
+    }
+
+    @Override
+    public Optional<LocationSnapshot> findByCity(String city) {
+        if (city == null)
+            return Optional.empty();
+        return Optional.ofNullable(current().byCity().get(LocationSnapshot.normalizeCity(city)));
+    }
+
+    @Override
+    public Optional<LocationSnapshot> findById(Integer id) {
+        if (id == null)
+            return Optional.empty();
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    @Override
+    public Collection<LocationSnapshot> findAll() {
+        return current().byId().values();
+    }
+
+    @Override
+    public void reload() {
+        writeLock.lock();
+        try {
+            Map<Integer, LocationSnapshot> byId = transactionTemplate.execute(status -> {
+                Map<Integer, LocationSnapshot> snapshots = new HashMap<>();
+                for (Location location : locationRepository.findAllWithRules())
+                    snapshots.put(location.getId(), LocationSnapshot.of(location));
+                return snapshots;
+            });
+
+            index.set(Index.of(byId == null ? new HashMap<>() : byId));
+            logger.info("Location snapshot rebuilt with " + index.get().byId().size() + " location(s)");
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Warms the snapshot up once the application has been started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        current();
+    }
+
+    /**
+     * Patches the snapshot with the current state of the changed location
+     * @param event specifies the location change event, null location ID causes a full reload
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onLocationChanged(LocationChangedEvent event) {
+        writeLock.lock();
+        try {
+            if (event.locationId() == null || index.get() == null) {
+                reload();
+                return;
+            }
+
+            LocationSnapshot snapshot = transactionTemplate.execute(status -> locationRepository.findWithRulesById(event.locationId())
+                .map(LocationSnapshot::of)
+                .orElse(null));
+            index.set(index.get().with(event.locationId(), snapshot));
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Index current() {
+        Index current = index.get();
+        if (current != null)
+            return current;
+
+        writeLock.lock();
+        try {
+            if (index.get() == null)
+                reload();
+            return index.get();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.service.WeatherApiFetchService;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProvider;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProviderRegistry;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiReaderFactory;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.CircuitBreaker;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+@Component(value = "weatherApiFetchService")
+public class WeatherApiFetchServiceImpl implements WeatherApiFetchService {
+    @Autowired
+    private WeatherApiReaderFactory weatherApiReaderFactory;
+    @Autowired
+    private WeatherApiProviderRegistry weatherApiProviderRegistry;
+    @Autowired
+    private Clock clock;
+
+    @Value("${weatherapi.fetch.deadline:20s}")
+    private Duration deadline = Duration.ofSeconds(20);
+    @Value("${weatherapi.fetch.max-attempts:3}")
+    private int maxAttempts = 3;
+    @Value("${weatherapi.fetch.backoff:500ms}")
+    private Duration backoff = Duration.ofMillis(500);
+    @Value("${weatherapi.fetch.hedge-delay:0s}")
+    private Duration hedgeDelay = Duration.ZERO;
+    @Value("${weatherapi.fetch.circuit-breaker.failure-threshold:3}")
+    private int failureThreshold = 3;
+    @Value("${weatherapi.fetch.circuit-breaker.cooldown:5m}")
+    private Duration cooldown = Duration.ofMinutes(5);
+    @Value("${weatherapi.fetch.pool-size:4}")
+    private int poolSize = 4;
+    @Value("${weatherapi.fetch.queue-capacity:16}")
+    private int queueCapacity = 16;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads = false;
+
+    private final Map<WeatherApiProvider, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private Executor executor;
+    private final Logger logger = Logger.getLogger(WeatherApiFetchServiceImpl.class.getName());
+
+    /**
+     * Creates the fetch executor once the configuration has been injected
+     */
+    @PostConstruct
+    public void start() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor virtualThreadExecutor = new SimpleAsyncTaskExecutor("weather-fetch-");
+            virtualThreadExecutor.setVirtualThreads(true);
+            executor = virtualThreadExecutor;
+        }
+        else {
+            // submitting never blocks, fetches beyond the queue capacity are rejected instead of piling up
+            // behind providers that hold the pool threads until their read timeout
+            ThreadPoolTaskExecutor threadPoolExecutor = new ThreadPoolTaskExecutor();
+            threadPoolExecutor.setCorePoolSize(poolSize);
+            threadPoolExecutor.setMaxPoolSize(poolSize);
+            threadPoolExecutor.setQueueCapacity(queueCapacity);
+            threadPoolExecutor.setThreadNamePrefix("weather-fetch-");
+            threadPoolExecutor.initialize();
+            executor = threadPoolExecutor;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor instanceof ThreadPoolTaskExecutor threadPoolExecutor)
+            threadPoolExecutor.shutdown();
+    }
+
+    @Override
+    public List<WeatherApiReader> fetchAll() {
+        return fetchAllAsync().join();
+    }
+
+    @Override
+    public CompletableFuture<List<WeatherApiReader>> fetchAllAsync() {
+        // every provider runs against its own deadline, so the wait is bounded by the slowest provider alone
+        List<CompletableFuture<WeatherApiReader>> fetches = new ArrayList<>();
+        for (WeatherApiProvider provider : weatherApiProviderRegistry.findEnabled())
+            fetches.add(fetchAsync(provider));
+
+        return CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<WeatherApiReader> readers = new ArrayList<>();
+            for (CompletableFuture<WeatherApiReader> fetch : fetches) {
+                WeatherApiReader reader = fetch.join();
+                if (reader != null)
+                    readers.add(reader);
+            }
+            return readers;
+        });
+    }
+
+    @Override
+    public WeatherApiReader fetch(WeatherApiProvider provider) {
+        return fetchAsync(provider).join();
+    }
+
+    private CompletableFuture<WeatherApiReader> fetchAsync(WeatherApiProvider provider) {
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(provider, p -> new CircuitBreaker(failureThreshold, cooldown, clock));
+        if (!circuitBreaker.tryAcquire()) {
+            logger.warning("Skipping weather API provider '" + provider.getName() + "' after repeated failures");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        return attempt(provider, 1, deadlineNanos)
+            .completeOnTimeout(null, deadline.toMillis(), TimeUnit.MILLISECONDS)
+            .thenApply(reader -> {
+                if (reader != null) {
+                    circuitBreaker.onSuccess();
+                }
+                else {
+                    logger.severe("Failed to fetch weather API provider '" + provider.getName() + "'");
+                    circuitBreaker.onFailure();
+                }
+                return reader;
+            });
+    }
+
+    private CompletableFuture<WeatherApiReader> attempt(WeatherApiProvider provider, int attempt, long deadlineNanos) {
+        return request(provider).thenCompose(reader -> {
+            if (reader != null || attempt >= maxAttempts)
+                return CompletableFuture.completedFuture(reader);
+
+            // exponential backoff, a retry that could not start before the deadline is not attempted at all
+            long delayMillis = backoff.toMillis() << (attempt - 1);
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) >= deadlineNanos)
+                return CompletableFuture.completedFuture(null);
+
+            logger.warning("Retrying weather API provider '" + provider.getName() + "' in " + delayMillis + " ms");
+            Executor delayed = CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> attempt, delayed)
+                .thenCompose(previous -> attempt(provider, previous + 1, deadlineNanos));
+        });
+    }
+
+    private CompletableFuture<WeatherApiReader> request(WeatherApiProvider provider) {
+        CompletableFuture<WeatherApiReader> primary = send(provider);
+        if (hedgeDelay.isZero() || hedgeDelay.isNegative())
+            return primary;
+
+        // a hedged request is sent when the primary one has not completed within the hedge delay,
+        // the first successful response wins
+        CompletableFuture<WeatherApiReader> hedged = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        BiConsumer<WeatherApiReader, Throwable> complete = (reader, e) -> {
+            if (reader != null)
+                hedged.complete(reader);
+            else if (pending.decrementAndGet() == 0)
+                hedged.complete(null);
+        };
+        primary.whenComplete(complete);
+        Executor delayed = CompletableFuture.delayedExecutor(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+        CompletableFuture.runAsync(() -> {
+            if (primary.isDone())
+                complete.accept(null, null);
+            else
+                send(provider).whenComplete(complete);
+        }, delayed);
+        return hedged;
+    }
+
+    // retries and hedged requests are only scheduled on the timer of CompletableFuture, every request is submitted here
+    private CompletableFuture<WeatherApiReader> send(WeatherApiProvider provider) {
+        CompletableFuture<WeatherApiReader> request;
+        try {
+            request = CompletableFuture.supplyAsync(() -> weatherApiReaderFactory.makeWeatherApiReader(provider), executor);
+        }
+        catch (RejectedExecutionException e) {
+            logger.warning("Rejected fetching weather API provider '" + provider.getName() + "', all fetch threads are busy");
+            return CompletableFuture.completedFuture(null);
+        }
+        return request
+            .exceptionally(e -> {
+                logger.severe("Unexpected error while fetching weather API provider '" + provider.getName() + "': " + e.getMessage());
+                return null;
+            });
+    }
+}
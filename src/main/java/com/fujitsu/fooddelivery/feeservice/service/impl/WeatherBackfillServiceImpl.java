@@ -0,0 +1,286 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.exception.WeatherApiException;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import com.fujitsu.fooddelivery.feeservice.representation.WeatherBackfillStatus;
+import com.fujitsu.fooddelivery.feeservice.service.LatestObservationService;
+import com.fujitsu.fooddelivery.feeservice.service.WeatherBackfillService;
+import com.fujitsu.fooddelivery.feeservice.service.event.WeatherImportCompletedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusApiReader;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusFeedParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Implementation class for WeatherBackfillService.<br>
+ * Files are split into batches that are parsed and stored by a pool of workers. A batch is recorded in the checkpoint
+ * only after its observations have been stored, thus a crash never marks files as done that were not stored.
+ */
+@Component(value = "weatherBackfillService")
+public class WeatherBackfillServiceImpl implements WeatherBackfillService {
+    @Autowired
+    private WeatherObservationRepository weatherObservationRepository;
+    @Autowired
+    private WeatherStationRepository weatherStationRepository;
+    @Autowired
+    private LatestObservationService latestObservationService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${weatherapi.backfill.directory:./data/archive}")
+    private String directory = "./data/archive";
+    @Value("${weatherapi.backfill.checkpoint:./data/backfill.checkpoint}")
+    private String checkpoint = "./data/backfill.checkpoint";
+    @Value("${weatherapi.backfill.parallelism:0}")
+    private int parallelism = 0;
+    @Value("${weatherapi.backfill.files-per-batch:200}")
+    private int filesPerBatch = 200;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Progress progress = new Progress(0, 0);
+    private final Logger logger = Logger.getLogger(WeatherBackfillServiceImpl.class.getName());
+
+    /**
+     * Counters of a single backfill run, updated concurrently by the workers
+     */
+    private static class Progress {
+        private final int totalFiles;
+        private final int skippedFiles;
+        private final AtomicInteger completedFiles = new AtomicInteger();
+        private final AtomicInteger failedFiles = new AtomicInteger();
+        private final AtomicLong storedObservations = new AtomicLong();
+
+        Progress(int totalFiles, int skippedFiles) {
+            this.totalFiles = totalFiles;
+            this.skippedFiles = skippedFiles;
+        }
+
+        WeatherBackfillStatus toStatus(boolean running) {
+            return new WeatherBackfillStatus(running, totalFiles, skippedFiles, completedFiles.get(), failedFiles.get(), storedObservations.get());
+        }
+    }
+
+    @Override
+    public boolean start() {
+        if (!running.compareAndSet(false, true))
+            return false;
+
+        // runs on the application task executor like the scheduled imports, which interrupts it on shutdown
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    run(Path.of(directory), Path.of(checkpoint));
+                }
+                catch (IOException | RuntimeException e) {
+                    logger.severe("Weather observation backfill failed: " + e.getMessage());
+                }
+                finally {
+                    running.set(false);
+                }
+            });
+        }
+        catch (TaskRejectedException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    @Override
+    public WeatherBackfillStatus getStatus() {
+        return progress.toStatus(running.get());
+    }
+
+    @Override
+    public WeatherBackfillStatus backfill(Path directory, Path checkpoint) throws IOException {
+        if (!running.compareAndSet(false, true))
+            throw new IllegalStateException("A weather observation backfill is already running");
+
+        try {
+            return run(directory, checkpoint);
+        }
+        finally {
+            running.set(false);
+        }
+    }
+
+    private WeatherBackfillStatus run(Path directory, Path checkpoint) throws IOException {
+        List<Path> files = findFeedFiles(directory);
+        Set<String> backfilled = readCheckpoint(checkpoint);
+        List<Path> pending = files.stream().filter(file -> !backfilled.contains(checkpointKey(directory, file))).toList();
+        Progress current = new Progress(files.size(), files.size() - pending.size());
+        progress = current;
+        logger.info("Backfilling " + pending.size() + " of " + files.size() + " archived weather feed file(s) from " + directory);
+
+        // stations are resolved by name from a single in-memory map shared by all workers
+        Map<String, WeatherStation> stationsByName = new HashMap<>();
+        for (WeatherStation station : weatherStationRepository.findAll())
+            stationsByName.putIfAbsent(station.getName(), station);
+
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        if (checkpoint.toAbsolutePath().getParent() != null)
+            Files.createDirectories(checkpoint.toAbsolutePath().getParent());
+        try (BufferedWriter checkpointWriter = Files.newBufferedWriter(checkpoint, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            try {
+                List<Future<?>> batches = new ArrayList<>();
+                for (int from = 0; from < pending.size(); from += filesPerBatch) {
+                    List<Path> batch = pending.subList(from, Math.min(from + filesPerBatch, pending.size()));
+                    batches.add(executor.submit(() -> backfillBatch(directory, batch, stationsByName, checkpointWriter, current)));
+                }
+                for (Future<?> batch : batches)
+                    batch.get();
+            }
+            finally {
+                // workers must not outlive the checkpoint writer
+                executor.shutdownNow();
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Weather observation backfill was interrupted, it resumes from the checkpoint when started again");
+        }
+        catch (ExecutionException e) {
+            throw new IOException("Weather observation backfill failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        if (current.storedObservations.get() > 0) {
+            latestObservationService.update(stationsByName.values().stream().map(WeatherStation::getId).toList());
+            eventPublisher.publishEvent(new WeatherImportCompletedEvent((int) Math.min(Integer.MAX_VALUE, current.storedObservations.get())));
+        }
+
+        WeatherBackfillStatus status = current.toStatus(false);
+        logger.info("Backfilled " + status.completedFiles() + " file(s) with " + status.storedObservations() + " observation(s), "
+            + status.failedFiles() + " file(s) failed");
+        return status;
+    }
+
+    private void backfillBatch(Path directory, List<Path> files, Map<String, WeatherStation> stationsByName,
+                               BufferedWriter checkpointWriter, Progress progress) {
+        List<WeatherObservation> observations = new ArrayList<>();
+        List<Path> readFiles = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                observations.addAll(readObservations(file, stationsByName));
+                readFiles.add(file);
+            }
+            catch (IOException | XMLStreamException | RuntimeException e) {
+                // a single malformed file, for instance with an out-of-range timestamp, must not abort the other batches
+                logger.warning("Could not read archived weather feed '" + file + "': " + e.getMessage());
+                progress.failedFiles.incrementAndGet();
+            }
+        }
+
+        try {
+            if (!observations.isEmpty())
+                progress.storedObservations.addAndGet(weatherObservationRepository.upsertAll(observations));
+        }
+        catch (DataAccessException e) {
+            logger.severe("Failed to store backfilled weather observations: " + e.getMessage());
+            progress.failedFiles.addAndGet(readFiles.size());
+            return;
+        }
+
+        synchronized (checkpointWriter) {
+            try {
+                for (Path file : readFiles) {
+                    checkpointWriter.write(checkpointKey(directory, file));
+                    checkpointWriter.newLine();
+                }
+                checkpointWriter.flush();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        progress.completedFiles.addAndGet(readFiles.size());
+    }
+
+    /*
+        Observations are built by the same reader as live imports, thus backfilled and imported observations are identical
+     */
+    private static List<WeatherObservation> readObservations(Path file, Map<String, WeatherStation> stationsByName) throws IOException, XMLStreamException {
+        IlmateenistusApiReader reader;
+        try (InputStream input = open(file)) {
+            reader = new IlmateenistusApiReader(IlmateenistusFeedParser.parse(input));
+        }
+
+        List<WeatherObservation> observations = new ArrayList<>();
+        for (String name : reader.getStationNames()) {
+            WeatherStation station = stationsByName.get(name);
+            if (station == null)
+                continue;
+            try {
+                observations.add(reader.findTheMostRecentObservationByStation(station));
+            }
+            catch (WeatherApiException e) {
+                // a malformed station tag only skips that station
+            }
+        }
+        return observations;
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream input = Files.newInputStream(file);
+        return file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(input) : input;
+    }
+
+    private static List<Path> findFeedFiles(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(path -> path.getFileName().toString().endsWith(".xml") || path.getFileName().toString().endsWith(".xml.gz"))
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static Set<String> readCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint))
+            return new HashSet<>();
+        try (Stream<String> lines = Files.lines(checkpoint, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.isBlank()).collect(Collectors.toCollection(HashSet::new));
+        }
+    }
+
+    private static String checkpointKey(Path directory, Path file) {
+        return directory.relativize(file).toString().replace('\\', '/');
+    }
+}
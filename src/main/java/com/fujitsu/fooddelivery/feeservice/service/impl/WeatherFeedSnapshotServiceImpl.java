@@ -0,0 +1,110 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.service.WeatherApiFetchService;
+import com.fujitsu.fooddelivery.feeservice.service.WeatherFeedSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.WeatherFeedSnapshot;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+@Component(value = "weatherFeedSnapshotService")
+public class WeatherFeedSnapshotServiceImpl implements WeatherFeedSnapshotService {
+    @Autowired
+    private WeatherApiFetchService weatherApiFetchService;
+    @Autowired
+    private Clock clock;
+
+    @Value("${weatherapi.feed.ttl:1h}")
+    private Duration ttl = Duration.ofHours(1);
+    @Value("${weatherapi.feed.refresh-ahead:10m}")
+    private Duration refreshAhead = Duration.ofMinutes(10);
+
+    // readers never see a partially built snapshot, a refresh swaps the whole reference
+    private final AtomicReference<WeatherFeedSnapshot> snapshot = new AtomicReference<>(WeatherFeedSnapshot.EMPTY);
+    // blocking refreshes are serialized so that concurrent cold lookups trigger a single fetch
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean refreshingAhead = new AtomicBoolean();
+    private final Logger logger = Logger.getLogger(WeatherFeedSnapshotServiceImpl.class.getName());
+
+    @Override
+    public WeatherFeedSnapshot current() {
+        WeatherFeedSnapshot current = snapshot.get();
+        if (isExpired(current)) {
+            refreshLock.lock();
+            try {
+                // another thread may have refreshed the snapshot while this one was waiting
+                current = snapshot.get();
+                if (isExpired(current))
+                    current = refresh();
+            }
+            finally {
+                refreshLock.unlock();
+            }
+        }
+        else if (isDueForRefresh(current)) {
+            refreshAhead();
+        }
+        return current;
+    }
+
+    @Override
+    public WeatherFeedSnapshot refresh() {
+        return publish(weatherApiFetchService.fetchAll());
+    }
+
+    /**
+     * Keeps the snapshot warm, so that lookups would not have to wait for a fetch.<br>
+     * This method is scheduled to run automatically every minute, it only fetches when the snapshot is due for refresh.
+     */
+    @Scheduled(initialDelay = 0, fixedDelay = 1000*60)
+    public void refreshIfDue() {
+        WeatherFeedSnapshot current = snapshot.get();
+        if (isExpired(current) || isDueForRefresh(current))
+            refreshAhead();
+    }
+
+    private void refreshAhead() {
+        if (!refreshingAhead.compareAndSet(false, true))
+            return;
+
+        weatherApiFetchService.fetchAllAsync()
+            .thenAccept(this::publish)
+            .whenComplete((done, e) -> {
+                if (e != null)
+                    logger.severe("Failed to refresh weather feed snapshot: " + e.getMessage());
+                refreshingAhead.set(false);
+            });
+    }
+
+    private WeatherFeedSnapshot publish(List<WeatherApiReader> readers) {
+        if (readers.isEmpty()) {
+            // a stale snapshot is more useful than none, it is replaced as soon as a provider responds again
+            logger.warning("None of the weather API providers could be fetched, keeping the previous weather feed snapshot");
+            return snapshot.get();
+        }
+
+        WeatherFeedSnapshot fetched = new WeatherFeedSnapshot(readers, clock.instant());
+        snapshot.set(fetched);
+        return fetched;
+    }
+
+    private boolean isExpired(WeatherFeedSnapshot snapshot) {
+        return snapshot.getFetchedAt() == null || !clock.instant().isBefore(snapshot.getFetchedAt().plus(ttl));
+    }
+
+    private boolean isDueForRefresh(WeatherFeedSnapshot snapshot) {
+        Instant refreshAt = snapshot.getFetchedAt().plus(ttl).minus(refreshAhead);
+        return !clock.instant().isBefore(refreshAt);
+    }
+}
@@ -0,0 +1,198 @@
+package com.fujitsu.fooddelivery.feeservice.service.impl;
+
+import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
+import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.CronWeatherImport;
+import com.fujitsu.fooddelivery.feeservice.service.LocationSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.WeatherObservationCompactionService;
+import com.fujitsu.fooddelivery.feeservice.service.rules.CompiledFeeRules;
+import com.fujitsu.fooddelivery.feeservice.service.rules.FeeRuleTimeline;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.CurrentFee;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Implementation class for WeatherObservationCompactionService
+ */
+@Component(value = "weatherObservationCompactionService")
+public class WeatherObservationCompactionServiceImpl implements WeatherObservationCompactionService {
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    @Autowired
+    private WeatherObservationRepository weatherObservationRepository;
+    @Autowired
+    private WeatherStationRepository weatherStationRepository;
+    @Autowired
+    private LocationSnapshotService locationSnapshotService;
+    @Autowired
+    private Clock clock;
+
+    @Value("${retention.observations.enabled:true}")
+    private boolean enabled = true;
+    @Value("${retention.observations.raw-period:30d}")
+    private Duration rawPeriod = Duration.ofDays(30);
+    @Value("${retention.observations.max-age:0d}")
+    private Period maxAge = Period.ZERO;
+    @Value("${retention.observations.batch-size:500}")
+    private int batchSize = 500;
+
+    private final Logger logger = Logger.getLogger(WeatherObservationCompactionServiceImpl.class.getName());
+
+    /**
+     * Observations of a single station that are about to be deleted, flushed whenever a batch is full
+     */
+    private class Deletions {
+        private final List<Integer> ids = new ArrayList<>();
+        private int count = 0;
+
+        void add(WeatherObservation observation) {
+            ids.add(observation.getId());
+            if (ids.size() >= batchSize)
+                flush();
+        }
+
+        void flush() {
+            if (ids.isEmpty())
+                return;
+            weatherObservationRepository.deleteAllByIdInBatch(List.copyOf(ids));
+            count += ids.size();
+            ids.clear();
+        }
+    }
+
+    @Async
+    @Scheduled(cron = "${scheduling.compaction.cron:0 45 3 * * ?}", zone = CronWeatherImport.SCHEDULE_ZONE)
+    public void scheduledCompaction() {
+        if (!enabled)
+            return;
+
+        logger.info("Performing a scheduled weather observation compaction");
+        try {
+            logger.info("Deleted " + compact() + " weather observation(s) during compaction");
+        }
+        catch (DataAccessException e) {
+            logger.severe("Failed to compact weather observations: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public int compact() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime rawCutoff = now.minus(rawPeriod);
+        LocalDateTime ageCutoff = maxAge.isZero() || maxAge.isNegative() ? null : now.minus(maxAge);
+
+        Map<Integer, List<FeeRuleTimeline>> rulesByStation = new HashMap<>();
+        for (LocationSnapshot location : locationSnapshotService.findAll()) {
+            if (location.getWeatherStation() != null)
+                rulesByStation.computeIfAbsent(location.getWeatherStation().getId(), id -> new ArrayList<>()).add(location.getRules());
+        }
+
+        int deleted = 0;
+        for (WeatherStation station : weatherStationRepository.findAll()) {
+            Deletions deletions = new Deletions();
+            if (ageCutoff != null)
+                dropExpired(station, ageCutoff, deletions);
+            // without locations there is nothing to tell fee relevant observations apart by, they are all kept
+            List<FeeRuleTimeline> rules = rulesByStation.get(station.getId());
+            if (rules != null)
+                downsample(station, rules, rawCutoff, deletions);
+            deletions.flush();
+            deleted += deletions.count;
+        }
+        return deleted;
+    }
+
+    /*
+        The latest observation before the cutoff stays, as it is still in effect right after the cutoff
+     */
+    private void dropExpired(WeatherStation station, LocalDateTime ageCutoff, Deletions deletions) {
+        Optional<WeatherObservation> inEffect = weatherObservationRepository
+            .findFirstByStationAndTimestampLessThanEqualOrderByTimestampDesc(station, ageCutoff);
+        if (inEffect.isEmpty())
+            return;
+
+        List<WeatherObservation> batch;
+        do {
+            batch = weatherObservationRepository.findByStationAndTimestampLessThanOrderByTimestampAsc(
+                station, inEffect.get().getTimestamp(), PageRequest.of(0, batchSize));
+            batch.forEach(deletions::add);
+            deletions.flush();
+        } while (batch.size() == batchSize);
+    }
+
+    /*
+        An observation is redundant when replacing it with the preceding kept observation does not change the
+        outcome of any vehicle type at any location for as long as it was in effect, including every rule change
+        until the next observation. The first and the last observation of a station are always kept.
+     */
+    private void downsample(WeatherStation station, List<FeeRuleTimeline> rules, LocalDateTime rawCutoff, Deletions deletions) {
+        WeatherObservation kept = null;
+        WeatherObservation candidate = null;
+        List<WeatherObservation> batch = weatherObservationRepository.findByStationAndTimestampLessThanOrderByTimestampAsc(
+            station, rawCutoff, PageRequest.of(0, batchSize));
+        while (!batch.isEmpty()) {
+            for (WeatherObservation next : batch) {
+                if (candidate != null) {
+                    if (kept != null && isRedundant(rules, kept, candidate, next.getTimestamp()))
+                        deletions.add(candidate);
+                    else
+                        kept = candidate;
+                }
+                candidate = next;
+            }
+            if (batch.size() < batchSize)
+                break;
+            batch = weatherObservationRepository.findByStationAndTimestampGreaterThanAndTimestampLessThanOrderByTimestampAsc(
+                station, candidate.getTimestamp(), rawCutoff, PageRequest.of(0, batchSize));
+        }
+
+        if (kept == null || candidate == null)
+            return;
+        // the last observation before the cutoff remains in effect until the first raw observation
+        Optional<WeatherObservation> next = weatherObservationRepository
+            .findFirstByStationAndTimestampGreaterThanEqualOrderByTimestampAsc(station, rawCutoff);
+        if (next.isPresent() && isRedundant(rules, kept, candidate, next.get().getTimestamp()))
+            deletions.add(candidate);
+    }
+
+    private boolean isRedundant(List<FeeRuleTimeline> rules, WeatherObservation kept, WeatherObservation candidate, LocalDateTime until) {
+        for (FeeRuleTimeline timeline : rules) {
+            for (LocalDateTime time = candidate.getTimestamp(); time != null && time.isBefore(until); time = timeline.nextChangeAfter(time)) {
+                CompiledFeeRules compiled = timeline.at(time);
+                for (VehicleType type : VEHICLE_TYPES) {
+                    if (!outcome(compiled, type, kept).equals(outcome(compiled, type, candidate)))
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static CurrentFee outcome(CompiledFeeRules rules, VehicleType type, WeatherObservation observation) {
+        try {
+            BigDecimal fee = rules.calculate(type, observation);
+            return new CurrentFee(fee, null);
+        }
+        catch (ForbiddenVehicleException e) {
+            return new CurrentFee(null, e.getMessage());
+        }
+    }
+}
@@ -2,35 +2,19 @@ package com.fujitsu.fooddelivery.feeservice.service.impl;
 
 import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
 import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.WeatherFeedSnapshotService;
 import com.fujitsu.fooddelivery.feeservice.service.WeatherStationQueryService;
-import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiReaderFactory;
-import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
-import java.util.List;
 
 @Component(value = "weatherStationQueryService")
 public class WeatherStationQueryServiceImpl implements WeatherStationQueryService {
     @Autowired
     private WeatherStationRepository weatherStationRepository;
-    private List<WeatherApiReader> weatherApiReaders;
-
-    public WeatherStationQueryServiceImpl() {
-        updateExternalApiReaderCache();
-    }
-
-    /**
-     * Updates the WeatherApiReader list so that the external API results would be relatively up-to date.<br>
-     * This method is scheduled to run automatically every hour.
-     */
-    @Scheduled(fixedDelay = 1000*60*60*60)
-    public void updateExternalApiReaderCache() {
-        WeatherApiReaderFactory factory = new WeatherApiReaderFactory();
-        weatherApiReaders = factory.makeAllWeatherApiReaders();
-    }
+    @Autowired
+    private WeatherFeedSnapshotService weatherFeedSnapshotService;
 
     @Override
     public WeatherStation findById(Integer id) {
@@ -44,14 +28,8 @@ public class WeatherStationQueryServiceImpl implements WeatherStationQueryServic
         if (optRepoWeatherStation.isPresent())
             return optRepoWeatherStation.get();
 
-        // query from external APIs
-        for (WeatherApiReader reader : weatherApiReaders) {
-            WeatherStation station;
-            if ((station = reader.findWeatherStationByName(name)) != null)
-                return station;
-        }
-
-        return null;
+        // query from the shared snapshot of external APIs
+        return weatherFeedSnapshotService.current().findWeatherStationByName(name);
     }
 
     @Override
@@ -60,13 +38,7 @@ public class WeatherStationQueryServiceImpl implements WeatherStationQueryServic
         if (optRepoWeatherStation.isPresent())
             return optRepoWeatherStation.get();
 
-        // query from external APIs
-        for (WeatherApiReader reader : weatherApiReaders) {
-            WeatherStation station;
-            if ((station = reader.findWeatherStationByWmoCode(wmo)) != null)
-                return station;
-        }
-
-        return null;
+        // query from the shared snapshot of external APIs
+        return weatherFeedSnapshotService.current().findWeatherStationByWmoCode(wmo);
     }
 }
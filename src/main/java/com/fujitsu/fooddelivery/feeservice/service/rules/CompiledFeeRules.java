@@ -0,0 +1,200 @@
+package com.fujitsu.fooddelivery.feeservice.service.rules;
+
+import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
+import com.fujitsu.fooddelivery.feeservice.model.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, precompiled form of a single location's fee rules.<br>
+ * Weather phenomenon rules are keyed by their classification, threshold rules are stored in sorted interval tables
+ * and every table cell holds the precomputed adjustment per vehicle type. Resolving a fee therefore costs one
+ * EnumMap lookup and two binary searches instead of a scan over all extra fee rules.<br>
+ * All amounts are stored as long minor units, BigDecimal is only created for the calculated result.
+ * Locations whose amounts do not fit into long minor units, which numeric(38,2) columns allow, are calculated with
+ * BigDecimal arithmetic instead.
+ */
+public final class CompiledFeeRules {
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private final BigDecimal[] baseFees;
+    private final long[] baseFeeMinorUnits;
+    private final int minorUnitScale;
+    private final Map<WeatherPhenomenonClassification, FeeAdjustment[]> phenomenonRules;
+    private final FeeAdjustment[] unclassifiedPhenomenonRules;
+    private final ThresholdTable airTemperatureRules;
+    private final ThresholdTable windSpeedRules;
+
+    private CompiledFeeRules(BigDecimal[] baseFees,
+                             long[] baseFeeMinorUnits,
+                             int minorUnitScale,
+                             Map<WeatherPhenomenonClassification, FeeAdjustment[]> phenomenonRules,
+                             FeeAdjustment[] unclassifiedPhenomenonRules,
+                             ThresholdTable airTemperatureRules,
+                             ThresholdTable windSpeedRules) {
+        this.baseFees = baseFees;
+        this.baseFeeMinorUnits = baseFeeMinorUnits;
+        this.minorUnitScale = minorUnitScale;
+        this.phenomenonRules = phenomenonRules;
+        this.unclassifiedPhenomenonRules = unclassifiedPhenomenonRules;
+        this.airTemperatureRules = airTemperatureRules;
+        this.windSpeedRules = windSpeedRules;
+    }
+
+    /**
+     * Compiles the regional base fee and all extra fee rules of given location that are valid at given time
+     * @param location specifies the location whose rules to compile
+     * @param time specifies the point in time used for checking rule validity
+     * @return a CompiledFeeRules instance
+     */
+    public static CompiledFeeRules compile(Location location, LocalDateTime time) {
+        List<ExtraFee> extraFees = location.getExtraFees() != null ? location.getExtraFees() : List.of();
+        List<ExtraFee> validExtraFees = new ArrayList<>();
+        for (ExtraFee extraFee : extraFees) {
+            if (extraFee.isValidAt(time))
+                validExtraFees.add(extraFee);
+        }
+        return compile(location, validExtraFees);
+    }
+
+    /**
+     * Compiles the regional base fee and given extra fee rules of given location, regardless of their validity
+     * @param location specifies the location whose base fees to compile
+     * @param validExtraFees specifies the extra fee rules to compile
+     * @return a CompiledFeeRules instance
+     */
+    static CompiledFeeRules compile(Location location, List<ExtraFee> validExtraFees) {
+        try {
+            return compile(location, validExtraFees, findMinorUnitScale(location, validExtraFees));
+        }
+        catch (ArithmeticException e) {
+            return compile(location, validExtraFees, FixedPointMoney.NO_MINOR_UNITS);
+        }
+    }
+
+    // minor units follow the currency, unless some amount has more fraction digits than the currency allows
+    private static int findMinorUnitScale(Location location, List<ExtraFee> validExtraFees) {
+        int minorUnitScale = FixedPointMoney.currencyScale(location.getCurrency());
+        for (VehicleType type : VEHICLE_TYPES) {
+            BigDecimal baseFee = pickRbf(location.getRegionalBaseFee(), type);
+            if (baseFee != null)
+                minorUnitScale = Math.max(minorUnitScale, baseFee.scale());
+        }
+        for (ExtraFee extraFee : validExtraFees) {
+            if (extraFee.getExtraFee() != null)
+                minorUnitScale = Math.max(minorUnitScale, extraFee.getExtraFee().scale());
+        }
+        return minorUnitScale;
+    }
+
+    private static CompiledFeeRules compile(Location location, List<ExtraFee> validExtraFees, int minorUnitScale) {
+        BigDecimal[] baseFees = new BigDecimal[VEHICLE_TYPES.length];
+        long[] baseFeeMinorUnits = new long[VEHICLE_TYPES.length];
+        for (VehicleType type : VEHICLE_TYPES) {
+            baseFees[type.ordinal()] = pickRbf(location.getRegionalBaseFee(), type);
+            if (baseFees[type.ordinal()] != null && minorUnitScale != FixedPointMoney.NO_MINOR_UNITS)
+                baseFeeMinorUnits[type.ordinal()] = FixedPointMoney.toMinorUnits(baseFees[type.ordinal()], minorUnitScale);
+        }
+
+        Map<WeatherPhenomenonClassification, FeeAdjustment[]> phenomenonRules = new EnumMap<>(WeatherPhenomenonClassification.class);
+        FeeAdjustment[] unclassifiedPhenomenonRules = emptyAdjustments();
+        List<ThresholdTable.Entry> airTemperatureEntries = new ArrayList<>();
+        List<ThresholdTable.Entry> windSpeedEntries = new ArrayList<>();
+
+        for (ExtraFee extraFee : validExtraFees) {
+            if (extraFee instanceof WeatherPhenomenonExtraFee rule) {
+                FeeAdjustment[] adjustments = rule.getPhenomenon() == null
+                    ? unclassifiedPhenomenonRules
+                    : phenomenonRules.computeIfAbsent(rule.getPhenomenon(), k -> emptyAdjustments());
+                apply(adjustments, rule, minorUnitScale);
+            }
+            else if (extraFee instanceof AirTemperatureExtraFee rule) {
+                airTemperatureEntries.add(new ThresholdTable.Entry(rule.getMinTemperature(), rule.getMaxTemperature(), rule));
+            }
+            else if (extraFee instanceof WindSpeedExtraFee rule) {
+                windSpeedEntries.add(new ThresholdTable.Entry(rule.getMinWindSpeed(), rule.getMaxWindSpeed(), rule));
+            }
+        }
+
+        return new CompiledFeeRules(
+            baseFees,
+            baseFeeMinorUnits,
+            minorUnitScale,
+            phenomenonRules,
+            unclassifiedPhenomenonRules,
+            airTemperatureEntries.isEmpty() ? ThresholdTable.EMPTY : new ThresholdTable(airTemperatureEntries, minorUnitScale),
+            windSpeedEntries.isEmpty() ? ThresholdTable.EMPTY : new ThresholdTable(windSpeedEntries, minorUnitScale)
+        );
+    }
+
+    /**
+     * Calculates the courier fee for given vehicle type under given weather observation
+     * @param type specifies the type of vehicle to use
+     * @param observation specifies the weather observation, null value yields the regional base fee
+     * @return BigDecimal object describing the calculated fee
+     * @throws ForbiddenVehicleException when any of the matched rules forbid the usage of given vehicle type
+     */
+    public BigDecimal calculate(VehicleType type, WeatherObservation observation) throws ForbiddenVehicleException {
+        BigDecimal fee = baseFees[type.ordinal()];
+        if (observation == null)
+            return fee;
+
+        FeeAdjustment phenomenon = findPhenomenonAdjustment(observation.getPhenomenon(), type);
+        FeeAdjustment airTemperature = airTemperatureRules.lookup(observation.getAirtemperature(), type);
+        FeeAdjustment windSpeed = windSpeedRules.lookup(observation.getWindSpeed(), type);
+
+        if (phenomenon.isForbidden() || airTemperature.isForbidden() || windSpeed.isForbidden())
+            throw new ForbiddenVehicleException("Usage of selected vehicle type is forbidden");
+
+        if (minorUnitScale == FixedPointMoney.NO_MINOR_UNITS)
+            return addDecimal(fee, phenomenon, airTemperature, windSpeed);
+
+        // equivalent to adding up BigDecimal amounts, where the result scale is the largest scale of operands
+        long total;
+        try {
+            total = Math.addExact(Math.addExact(baseFeeMinorUnits[type.ordinal()], phenomenon.getExtraFee()),
+                Math.addExact(airTemperature.getExtraFee(), windSpeed.getExtraFee()));
+        }
+        catch (ArithmeticException e) {
+            return addDecimal(fee, phenomenon, airTemperature, windSpeed);
+        }
+        int resultScale = Math.max(Math.max(fee.scale(), phenomenon.getScale()), Math.max(airTemperature.getScale(), windSpeed.getScale()));
+        return FixedPointMoney.toBigDecimal(total, minorUnitScale, resultScale);
+    }
+
+    private static BigDecimal addDecimal(BigDecimal fee, FeeAdjustment phenomenon, FeeAdjustment airTemperature, FeeAdjustment windSpeed) {
+        return fee.add(phenomenon.getDecimalExtraFee())
+            .add(airTemperature.getDecimalExtraFee())
+            .add(windSpeed.getDecimalExtraFee());
+    }
+
+        private FeeAdjustment findPhenomenonAdjustment(WeatherPhenomenonClassification phenomenon, VehicleType type) {
+        FeeAdjustment[] adjustments = phenomenon == null ? unclassifiedPhenomenonRules : phenomenonRules.get(phenomenon);
+        return adjustments == null ? FeeAdjustment.NONE : adjustments[type.ordinal()];
+    }
+
+    private static BigDecimal pickRbf(RegionalBaseFee rbf, VehicleType type) {
+        return switch (type) {
+            case CAR -> rbf.getCar();
+            case BIKE -> rbf.getBike();
+            case SCOOTER -> rbf.getScooter();
+        };
+    }
+
+    static FeeAdjustment[] emptyAdjustments() {
+        FeeAdjustment[] adjustments = new FeeAdjustment[VEHICLE_TYPES.length];
+        for (VehicleType type : VEHICLE_TYPES)
+            adjustments[type.ordinal()] = FeeAdjustment.NONE;
+        return adjustments;
+    }
+
+    static void apply(FeeAdjustment[] adjustments, ExtraFee rule, int minorUnitScale) {
+        for (VehicleType type : VEHICLE_TYPES)
+            adjustments[type.ordinal()] = adjustments[type.ordinal()].with(rule, type, minorUnitScale);
+    }
+}
@@ -0,0 +1,75 @@
+package com.fujitsu.fooddelivery.feeservice.service.rules;
+
+import com.fujitsu.fooddelivery.feeservice.model.ExtraFee;
+import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable combined effect of zero or more extra fee rules on a single vehicle type.<br>
+ * The extra fee is kept in long minor units, the scale of the largest applied amount is remembered
+ * so that the final result would have the same scale as BigDecimal addition would give. The BigDecimal sum is kept
+ * as well for amounts that do not fit into long minor units.
+ */
+public final class FeeAdjustment {
+    public static final FeeAdjustment NONE = new FeeAdjustment(0L, BigDecimal.ZERO, FixedPointMoney.NO_SCALE, false);
+
+    private final long extraFee;
+    private final BigDecimal decimalExtraFee;
+    private final int scale;
+    private final boolean forbidden;
+
+    private FeeAdjustment(long extraFee, BigDecimal decimalExtraFee, int scale, boolean forbidden) {
+        this.extraFee = extraFee;
+        this.decimalExtraFee = decimalExtraFee;
+        this.scale = scale;
+        this.forbidden = forbidden;
+    }
+
+    /**
+     * Applies the given extra fee rule on top of the current adjustment
+     * @param rule specifies the extra fee rule to apply
+     * @param type specifies the vehicle type whose rule should be used
+     * @param minorUnitScale specifies the scale of minor units or FixedPointMoney.NO_MINOR_UNITS
+     * @return a new FeeAdjustment instance or the current instance if the rule is not applicable to the vehicle
+     * @throws ArithmeticException when the extra fee does not fit into long minor units of given scale
+     */
+    public FeeAdjustment with(ExtraFee rule, VehicleType type, int minorUnitScale) {
+        return switch (rule.checkVehicleApplicability(type)) {
+            case APPLICABLE -> new FeeAdjustment(
+                minorUnitScale == FixedPointMoney.NO_MINOR_UNITS ? 0L
+                    : Math.addExact(extraFee, FixedPointMoney.toMinorUnits(rule.getExtraFee(), minorUnitScale)),
+                decimalExtraFee.add(rule.getExtraFee()),
+                Math.max(scale, rule.getExtraFee().scale()),
+                forbidden
+            );
+            case FORBIDDEN -> forbidden ? this : new FeeAdjustment(extraFee, decimalExtraFee, scale, true);
+            default -> this;
+        };
+    }
+
+    /**
+     * @return the extra fee in minor units
+     */
+    public long getExtraFee() {
+        return extraFee;
+    }
+
+    /**
+     * @return the extra fee as BigDecimal sum of applied amounts
+     */
+    public BigDecimal getDecimalExtraFee() {
+        return decimalExtraFee;
+    }
+
+    /**
+     * @return the largest scale of applied extra fee amounts or FixedPointMoney.NO_SCALE if nothing was applied
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    public boolean isForbidden() {
+        return forbidden;
+    }
+}
@@ -0,0 +1,100 @@
+package com.fujitsu.fooddelivery.feeservice.service.rules;
+
+import com.fujitsu.fooddelivery.feeservice.model.ExtraFee;
+import com.fujitsu.fooddelivery.feeservice.model.Location;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Immutable time index of a location's fee rules.<br>
+ * All validFrom and expireTime values of the location's rules are collected into a sorted change point list.
+ * Since a rule is valid strictly after validFrom and strictly before expireTime, the set of valid rules is constant
+ * on every change point itself and on every open interval between two consecutive change points. Each such segment
+ * holds precompiled rules, thus finding the rules for any instant is a single binary search.
+ */
+public final class FeeRuleTimeline {
+    private final LocalDateTime[] changePoints;
+    // segment 2i covers the open interval before changePoints[i], segment 2i+1 covers changePoints[i] itself
+    private final CompiledFeeRules[] segments;
+
+    private FeeRuleTimeline(LocalDateTime[] changePoints, CompiledFeeRules[] segments) {
+        this.changePoints = changePoints;
+        this.segments = segments;
+    }
+
+    /**
+     * Builds the time index of given location's rules
+     * @param location specifies the location whose rules to index
+     * @return a FeeRuleTimeline instance
+     */
+    public static FeeRuleTimeline build(Location location) {
+        List<ExtraFee> extraFees = location.getExtraFees() != null ? location.getExtraFees() : List.of();
+        TreeSet<LocalDateTime> points = new TreeSet<>();
+        for (ExtraFee extraFee : extraFees) {
+            if (extraFee.getValidFrom() != null)
+                points.add(extraFee.getValidFrom());
+            if (extraFee.getExpireTime() != null)
+                points.add(extraFee.getExpireTime());
+        }
+
+        LocalDateTime[] changePoints = points.toArray(new LocalDateTime[0]);
+        CompiledFeeRules[] segments = new CompiledFeeRules[2 * changePoints.length + 1];
+        // neighbouring segments usually share the same set of valid rules, which are compiled only once
+        Map<BitSet, CompiledFeeRules> compiled = new HashMap<>();
+        for (int s = 0; s < segments.length; s++) {
+            LocalDateTime time = representative(changePoints, s);
+            BitSet active = new BitSet(extraFees.size());
+            for (int i = 0; i < extraFees.size(); i++) {
+                if (extraFees.get(i).isValidAt(time))
+                    active.set(i);
+            }
+            segments[s] = compiled.computeIfAbsent(active, a -> CompiledFeeRules.compile(location, a.stream().mapToObj(extraFees::get).toList()));
+        }
+
+        return new FeeRuleTimeline(changePoints, segments);
+    }
+
+    /**
+     * Finds the compiled rules which are valid at given point in time
+     * @param time specifies the point in time
+     * @return a CompiledFeeRules instance
+     */
+    public CompiledFeeRules at(LocalDateTime time) {
+        return segments[segmentAt(time)];
+    }
+
+    /**
+     * Finds the index of the time segment containing given point in time, equal indices mean equal rules
+     * @param time specifies the point in time
+     * @return the segment index
+     */
+    public int segmentAt(LocalDateTime time) {
+        int index = Arrays.binarySearch(changePoints, time);
+        return index >= 0 ? 2 * index + 1 : 2 * -(index + 1);
+    }
+
+    /**
+     * Finds the earliest point in time after given time where the set of valid rules may change
+     * @param time specifies the point in time
+     * @return the next change point or null if the rules never change after given time
+     */
+    public LocalDateTime nextChangeAfter(LocalDateTime time) {
+        int index = Arrays.binarySearch(changePoints, time);
+        if (index >= 0)
+            return time.plusNanos(1);
+
+        int next = -(index + 1);
+        return next < changePoints.length ? changePoints[next] : null;
+    }
+
+    private static LocalDateTime representative(LocalDateTime[] changePoints, int segment) {
+        if (changePoints.length == 0)
+            return LocalDateTime.MIN;
+        if (segment % 2 == 1)
+            return changePoints[segment / 2];
+        if (segment == 0)
+            return changePoints[0].minusNanos(1);
+        return changePoints[segment / 2 - 1].plusNanos(1);
+    }
+}
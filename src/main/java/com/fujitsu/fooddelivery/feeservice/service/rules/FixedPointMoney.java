@@ -0,0 +1,66 @@
+package com.fujitsu.fooddelivery.feeservice.service.rules;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Utility functions for converting monetary amounts between BigDecimal and long minor units.<br>
+ * Fee calculation works on long minor units internally and converts back to BigDecimal only for the API response,
+ * while keeping the same scale as BigDecimal addition of the original amounts would produce.
+ */
+public final class FixedPointMoney {
+    /**
+     * Scale used for amounts without any explicit scale, so that the scale of other operands always wins
+     */
+    public static final int NO_SCALE = Integer.MIN_VALUE;
+
+    /**
+     * Minor unit scale of rules whose amounts do not fit into long minor units, such rules are added up as BigDecimal
+     */
+    public static final int NO_MINOR_UNITS = -1;
+
+    private static final int DEFAULT_CURRENCY_SCALE = 2;
+
+    private FixedPointMoney() {}
+
+    /**
+     * Finds the number of minor unit digits of given currency
+     * @param currency specifies the ISO 4217 currency code
+     * @return the number of fraction digits of the currency or 2 when the currency is unknown
+     */
+    public static int currencyScale(String currency) {
+        if (currency == null)
+            return DEFAULT_CURRENCY_SCALE;
+
+        try {
+            int digits = Currency.getInstance(currency.trim().toUpperCase()).getDefaultFractionDigits();
+            return digits < 0 ? DEFAULT_CURRENCY_SCALE : digits;
+        }
+        catch (IllegalArgumentException e) {
+            return DEFAULT_CURRENCY_SCALE;
+        }
+    }
+
+    /**
+     * Converts the amount into minor units of given scale
+     * @param amount specifies the amount whose scale must not be greater than given scale
+     * @param scale specifies the scale of minor units
+     * @return the amount in minor units
+     * @throws ArithmeticException when the amount does not fit into long minor units
+     */
+    public static long toMinorUnits(BigDecimal amount, int scale) {
+        return amount.movePointRight(scale).longValueExact();
+    }
+
+    /**
+     * Converts minor units back into a BigDecimal
+     * @param minorUnits specifies the amount in minor units
+     * @param scale specifies the scale of minor units
+     * @param resultScale specifies the scale of the result, which must be large enough to represent the amount exactly
+     * @return the amount as BigDecimal with given result scale
+     */
+    public static BigDecimal toBigDecimal(long minorUnits, int scale, int resultScale) {
+        return BigDecimal.valueOf(minorUnits, scale).setScale(resultScale, RoundingMode.UNNECESSARY);
+    }
+}
@@ -0,0 +1,91 @@
+package com.fujitsu.fooddelivery.feeservice.service.rules;
+
+import com.fujitsu.fooddelivery.feeservice.model.ExtraFee;
+import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Sorted interval table for threshold based extra fee rules (air temperature, wind speed).<br>
+ * All rule boundaries are collected into a sorted array, which splits the number line into elementary
+ * half-open segments. Each segment holds the precomputed adjustments of every rule covering it, so a lookup
+ * is a single binary search regardless of how many rules overlap.
+ */
+final class ThresholdTable {
+    /**
+     * Threshold rule entry where the matched interval is [min, max) and null bound means unbounded
+     */
+    record Entry(Float min, Float max, ExtraFee rule) {}
+
+    static final ThresholdTable EMPTY = new ThresholdTable(List.of(), 0);
+
+    private final float[] boundaries;
+    private final FeeAdjustment[][] segments;
+    private final FeeAdjustment[] unbounded;
+
+    ThresholdTable(List<Entry> entries, int minorUnitScale) {
+        // a NaN bound fails every comparison, thus such rule can never match
+        entries = entries.stream()
+            .filter(entry -> !isNaN(entry.min()) && !isNaN(entry.max()))
+            .toList();
+
+        TreeSet<Float> points = new TreeSet<>();
+        for (Entry entry : entries) {
+            if (entry.min() != null)
+                points.add(normalize(entry.min()));
+            if (entry.max() != null)
+                points.add(normalize(entry.max()));
+        }
+
+        boundaries = new float[points.size()];
+        int i = 0;
+        for (Float point : points)
+            boundaries[i++] = point;
+
+        segments = new FeeAdjustment[boundaries.length + 1][];
+        for (int s = 0; s < segments.length; s++)
+            segments[s] = CompiledFeeRules.emptyAdjustments();
+        unbounded = CompiledFeeRules.emptyAdjustments();
+
+        for (Entry entry : entries) {
+            int first = entry.min() == null ? 0 : segmentOf(normalize(entry.min()));
+            int last = entry.max() == null ? segments.length : segmentOf(normalize(entry.max()));
+            for (int s = first; s < last; s++)
+                CompiledFeeRules.apply(segments[s], entry.rule(), minorUnitScale);
+
+            if (entry.min() == null && entry.max() == null)
+                CompiledFeeRules.apply(unbounded, entry.rule(), minorUnitScale);
+        }
+    }
+
+    /**
+     * Finds the adjustment for given vehicle type caused by all rules whose interval contains the value
+     * @param value specifies the observed value, null values never match any rule
+     * @param type specifies the vehicle type
+     * @return a FeeAdjustment object, FeeAdjustment.NONE if no rules matched
+     */
+    FeeAdjustment lookup(Float value, VehicleType type) {
+        if (value == null)
+            return FeeAdjustment.NONE;
+        // NaN fails every comparison, thus only rules without any bounds can match it
+        if (value.isNaN())
+            return unbounded[type.ordinal()];
+        return segments[segmentOf(normalize(value))][type.ordinal()];
+    }
+
+    private int segmentOf(float value) {
+        int index = Arrays.binarySearch(boundaries, value);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    private static boolean isNaN(Float value) {
+        return value != null && value.isNaN();
+    }
+
+    // binary search orders -0.0f before 0.0f while comparison operators treat them as equal
+    private static float normalize(float value) {
+        return value + 0.0f;
+    }
+}
@@ -0,0 +1,14 @@
+package com.fujitsu.fooddelivery.feeservice.service.snapshot;
+
+import java.math.BigDecimal;
+
+/**
+ * Precomputed outcome of a current-time fee quote for a single location and vehicle type
+ * @param fee specifies the calculated fee or null if the vehicle type is forbidden
+ * @param forbiddenMessage specifies the reason why the vehicle type is forbidden or null if it is allowed
+ */
+public record CurrentFee(BigDecimal fee, String forbiddenMessage) {
+    public boolean isForbidden() {
+        return forbiddenMessage != null;
+    }
+}
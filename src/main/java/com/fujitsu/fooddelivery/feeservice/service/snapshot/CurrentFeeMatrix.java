@@ -0,0 +1,57 @@
+package com.fujitsu.fooddelivery.feeservice.service.snapshot;
+
+import com.fujitsu.fooddelivery.feeservice.model.VehicleType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable location × vehicle type matrix of current fees
+ */
+public final class CurrentFeeMatrix {
+    public static final CurrentFeeMatrix EMPTY = new CurrentFeeMatrix(Map.of(), Map.of(), null);
+
+    private final Map<Integer, CurrentFee[]> fees;
+    private final Map<Integer, String> eTags;
+    private final LocalDateTime expiresAt;
+
+    /**
+     * @param fees specifies current fees by location ID, each array is indexed by VehicleType ordinal
+     * @param eTags specifies entity tags of current fee quotes by location ID
+     * @param expiresAt specifies the point in time when any of the underlying rules changes validity, null if never
+     */
+    public CurrentFeeMatrix(Map<Integer, CurrentFee[]> fees, Map<Integer, String> eTags, LocalDateTime expiresAt) {
+        this.fees = Map.copyOf(fees);
+        this.eTags = Map.copyOf(eTags);
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Finds the precomputed current fee
+     * @param locationId specifies the location ID
+     * @param type specifies the vehicle type
+     * @return an Optional containing the current fee or an empty Optional if the location is not part of the matrix
+     */
+    public Optional<CurrentFee> find(Integer locationId, VehicleType type) {
+        CurrentFee[] locationFees = fees.get(locationId);
+        return locationFees == null ? Optional.empty() : Optional.of(locationFees[type.ordinal()]);
+    }
+
+    /**
+     * Finds the entity tag of current fee quotes
+     * @param locationId specifies the location ID
+     * @return an Optional containing the entity tag or an empty Optional if the location is not part of the matrix
+     */
+    public Optional<String> findETag(Integer locationId) {
+        return Optional.ofNullable(eTags.get(locationId));
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+
+    public int size() {
+        return fees.size();
+    }
+}
@@ -0,0 +1,42 @@
+package com.fujitsu.fooddelivery.feeservice.service.snapshot;
+
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherPhenomenonClassification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the fee relevant fields of the most recent weather observation of a station
+ * @param id specifies the ID of the stored observation
+ * @param stationId specifies the ID of the weather station
+ * @param timestamp specifies the time of the observation
+ * @param phenomenon specifies the classified weather phenomenon
+ * @param airTemperature specifies the air temperature
+ * @param windSpeed specifies the wind speed
+ */
+public record LatestObservation(Integer id, Integer stationId, LocalDateTime timestamp, WeatherPhenomenonClassification phenomenon,
+                                Float airTemperature, Float windSpeed) {
+    /**
+     * Copies given observation, must be called while the station association of the observation is still loadable
+     * @param observation specifies the observation to copy
+     * @return a new LatestObservation instance
+     */
+    public static LatestObservation of(WeatherObservation observation) {
+        return new LatestObservation(observation.getId(), observation.getStation().getId(), observation.getTimestamp(),
+            observation.getPhenomenon(), observation.getAirtemperature(), observation.getWindSpeed());
+    }
+
+    /**
+     * Creates a detached observation for fee calculation, the station association is left unset
+     * @return a new WeatherObservation instance
+     */
+    public WeatherObservation toWeatherObservation() {
+        WeatherObservation observation = new WeatherObservation();
+        observation.setId(id);
+        observation.setTimestamp(timestamp);
+        observation.setPhenomenon(phenomenon);
+        observation.setAirtemperature(airTemperature);
+        observation.setWindSpeed(windSpeed);
+        return observation;
+    }
+}
@@ -0,0 +1,92 @@
+package com.fujitsu.fooddelivery.feeservice.service.snapshot;
+
+import com.fujitsu.fooddelivery.feeservice.model.Location;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.service.rules.FeeRuleTimeline;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable, read-optimized copy of a location and its time indexed fee rules.<br>
+ * Snapshots are detached from the persistence context, thus reading them never touches the database.
+ */
+public final class LocationSnapshot {
+    // seeded with startup time, so that versions would not repeat across application restarts
+    private static final AtomicLong VERSIONS = new AtomicLong(System.currentTimeMillis());
+
+    @Getter
+    private final Integer id;
+
+    @Getter
+    private final String country;
+
+    @Getter
+    private final String city;
+
+    @Getter
+    private final String currency;
+
+    @Getter
+    private final WeatherStation weatherStation;
+
+    @Getter
+    private final FeeRuleTimeline rules;
+
+    @Getter
+    private final long version;
+
+    private LocationSnapshot(Location location, WeatherStation weatherStation, FeeRuleTimeline rules) {
+        this.id = location.getId();
+        this.country = location.getCountry();
+        this.city = location.getCity();
+        this.currency = location.getCurrency();
+        this.weatherStation = weatherStation;
+        this.rules = rules;
+        this.version = VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Creates a snapshot of given location. Must be called while lazy associations of the location are still loadable.
+     * @param location specifies the location to make a snapshot of
+     * @return a new LocationSnapshot instance
+     */
+    public static LocationSnapshot of(Location location) {
+        WeatherStation station = location.getWeatherStation() == null ? null : WeatherStation.builder()
+            .id(location.getWeatherStation().getId())
+            .name(location.getWeatherStation().getName())
+            .wmoCode(location.getWeatherStation().getWmoCode())
+            .longitude(location.getWeatherStation().getLongitude())
+            .latitude(location.getWeatherStation().getLatitude())
+            .build();
+
+        return new LocationSnapshot(location, station, FeeRuleTimeline.build(location));
+    }
+
+    /**
+     * Makes a strong entity tag for a fee quote of this location, which changes whenever the location rules,
+     * the set of valid rules or the used weather observation changes.<br>
+     * Imports update observations of the same station and timestamp in place, thus the tag covers the observation values
+     * the fee depends on, not only its ID.
+     * @param time specifies the point in time of the quote
+     * @param observation specifies the weather observation used for the quote, null if none
+     * @return a quoted entity tag string
+     */
+    public String quoteETag(LocalDateTime time, WeatherObservation observation) {
+        String weather = observation == null ? "none" : observation.getId() + "-" + observation.getPhenomenon()
+            + "-" + observation.getAirtemperature() + "-" + observation.getWindSpeed();
+        return "\"" + id + "-" + version + "-" + rules.segmentAt(time) + "-" + weather + "\"";
+    }
+
+    /**
+     * Normalizes the city name so that lookups would be independent of letter case and surrounding whitespace
+     * @param city specifies the city name to normalize
+     * @return normalized city name
+     */
+    public static String normalizeCity(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,105 @@
+package com.fujitsu.fooddelivery.feeservice.service.snapshot;
+
+import com.fujitsu.fooddelivery.feeservice.exception.WeatherApiException;
+import com.fujitsu.fooddelivery.feeservice.exception.WeatherStationNotFoundException;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable set of weather API readers that were fetched together.<br>
+ * Stations are mapped to the readers of the providers that own them upon construction, thus a lookup only queries
+ * the owning providers in priority order instead of every provider.
+ */
+public final class WeatherFeedSnapshot {
+    public static final WeatherFeedSnapshot EMPTY = new WeatherFeedSnapshot(List.of(), null);
+
+    private final List<WeatherApiReader> readers;
+    private final Instant fetchedAt;
+    private final Map<String, List<WeatherApiReader>> readersByStationName = new HashMap<>();
+    private final Map<Integer, List<WeatherApiReader>> readersByWmoCode = new HashMap<>();
+
+    /**
+     * @param readers specifies the readers of the providers that were fetched successfully, in provider priority order
+     * @param fetchedAt specifies the point in time when the readers were fetched, null if never
+     */
+    public WeatherFeedSnapshot(List<WeatherApiReader> readers, Instant fetchedAt) {
+        this.readers = List.copyOf(readers);
+        this.fetchedAt = fetchedAt;
+        for (WeatherApiReader reader : this.readers) {
+            for (String name : reader.getStationNames())
+                readersByStationName.computeIfAbsent(name, k -> new ArrayList<>(1)).add(reader);
+            for (Integer wmo : reader.getStationWmoCodes())
+                readersByWmoCode.computeIfAbsent(wmo, k -> new ArrayList<>(1)).add(reader);
+        }
+    }
+
+    /**
+     * Find a weather station by name from the highest priority provider that owns it
+     * @param name station's name to use for searching
+     * @return a valid WeatherStation object if any provider owns such station or null otherwise
+     */
+    public WeatherStation findWeatherStationByName(String name) {
+        for (WeatherApiReader reader : readersByStationName.getOrDefault(name, List.of())) {
+            WeatherStation station;
+            if ((station = reader.findWeatherStationByName(name)) != null)
+                return station;
+        }
+        return null;
+    }
+
+    /**
+     * Find a weather station by wmo code from the highest priority provider that owns it
+     * @param wmo station's wmo code to use for searching
+     * @return a valid WeatherStation object if any provider owns such station or null otherwise
+     */
+    public WeatherStation findWeatherStationByWmoCode(Integer wmo) {
+        for (WeatherApiReader reader : readersByWmoCode.getOrDefault(wmo, List.of())) {
+            WeatherStation station;
+            if ((station = reader.findWeatherStationByWmoCode(wmo)) != null)
+                return station;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the most recent observation of given station from the providers that own it, in priority order
+     * @param station specifies the station whose observation to find
+     * @return the observation of the first owning provider that could provide one
+     * @throws WeatherApiException when no provider owns the station or none of the owners could provide a valid observation
+     */
+    public WeatherObservation findTheMostRecentObservationByStation(WeatherStation station) throws WeatherApiException {
+        List<WeatherApiReader> owners = readersByStationName.getOrDefault(station.getName(), List.of());
+        if (owners.isEmpty())
+            throw new WeatherStationNotFoundException("None of the weather API providers know weather station with name '" + station.getName() + "'");
+
+        WeatherApiException failure = null;
+        for (WeatherApiReader reader : owners) {
+            try {
+                return reader.findTheMostRecentObservationByStation(station);
+            }
+            catch (WeatherApiException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    public List<WeatherApiReader> getReaders() {
+        return readers;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public boolean isEmpty() {
+        return readers.isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package com.fujitsu.fooddelivery.feeservice.service.weatherapi;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Per-provider circuit breaker.<br>
+ * After a number of consecutive failed fetches the breaker opens and rejects fetches until the cooldown has passed.
+ * After that a single trial fetch is let through, its outcome either closes the breaker or opens it for another cooldown.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    private final int failureThreshold;
+    private final Duration cooldown;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    /**
+     * @param failureThreshold specifies the number of consecutive failures that opens the breaker
+     * @param cooldown specifies how long an open breaker rejects fetches
+     * @param clock specifies the clock used for measuring the cooldown
+     */
+    public CircuitBreaker(int failureThreshold, Duration cooldown, Clock clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.cooldown = cooldown;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a fetch may be performed right now
+     * @return true if the breaker is closed or a trial fetch is allowed after the cooldown, false otherwise
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED)
+            return true;
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(cooldown))) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        // only one trial fetch at a time while half-open
+        return false;
+    }
+
+    /**
+     * Records a successful fetch and closes the breaker
+     */
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Records a failed fetch, opening the breaker when the trial fetch failed or the failure threshold was reached
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,39 @@
+package com.fujitsu.fooddelivery.feeservice.service.weatherapi;
+
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProvider;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Weather API provider for Ilmateenistus XML ticker API, which covers Estonian weather stations
+ */
+@Component
+public class IlmateenistusApiProvider implements WeatherApiProvider {
+    public static final String NAME = "ilmateenistus";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDefaultEndpoint() {
+        return IlmateenistusApiReader.ENDPOINT;
+    }
+
+    @Override
+    public WeatherApiReader read(InputStream input, String knownFeedVersion) throws IOException {
+        try {
+            // the response is streamed directly into station records without building a document tree,
+            // a response with an already known timestamp is not read past the root tag
+            IlmateenistusFeedParser.Feed feed = IlmateenistusFeedParser.parse(input, knownFeedVersion);
+            return feed == null ? null : new IlmateenistusApiReader(getName(), feed);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("Ilmateenistus XML ticker has returned a malformed document: " + e.getMessage(), e);
+        }
+    }
+}
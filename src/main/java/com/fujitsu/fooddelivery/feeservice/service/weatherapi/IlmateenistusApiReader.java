@@ -6,92 +6,148 @@ import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
 import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
 import com.fujitsu.fooddelivery.feeservice.service.weatherapi.classifier.PhenomenonClassifier;
 import org.dom4j.Document;
-import org.dom4j.InvalidXPathException;
-import org.dom4j.Node;
+import org.dom4j.Element;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.TimeZone;
+import java.util.*;
 import java.util.logging.Logger;
 
+/**
+ * WeatherApiReader implementation for Ilmateenistus XML ticker API.<br>
+ * The response is read once upon construction, either from a streamed feed or from a document, and every station is
+ * indexed by its name and WMO code together with its pre-extracted fields, thus all lookups are hash map lookups.
+ */
 public class IlmateenistusApiReader implements WeatherApiReader {
     private final Logger logger;
-    private final Document document;
+    private final String providerName;
+    private final String feedVersion;
+    private final LocalDateTime timestamp;
+    private final List<StationEntry> stations = new ArrayList<>();
+    private final Map<String, StationEntry> stationsByName = new HashMap<>();
+    private final Map<Integer, StationEntry> stationsByWmoCode = new HashMap<>();
     public static final String ENDPOINT = "https://www.ilmateenistus.ee/ilma_andmed/xml/observations.php";
 
+    /**
+     * Pre-extracted contents of a single station tag, observation values are kept as text
+     * and parsed upon lookup so that malformed values would only fail the lookup of given station
+     */
+    private record StationEntry(String name, Integer wmoCode, Double longitude, Double latitude,
+                                String airTemperature, String windSpeed, String phenomenon) {}
+
     public IlmateenistusApiReader(Document document) {
         this.logger = Logger.getLogger(IlmateenistusApiReader.class.getName());
-        this.document = document;
+        this.providerName = IlmateenistusApiProvider.NAME;
+        this.feedVersion = document.getRootElement().attributeValue("timestamp");
+        this.timestamp = parseTimestampOrNull(feedVersion);
+        index(document.getRootElement());
+    }
+
+    public IlmateenistusApiReader(IlmateenistusFeedParser.Feed feed) {
+        this(IlmateenistusApiProvider.NAME, feed);
+    }
+
+    /**
+     * @param providerName specifies the name of the provider whose feed is read
+     * @param feed specifies the streamed feed to read
+     */
+    public IlmateenistusApiReader(String providerName, IlmateenistusFeedParser.Feed feed) {
+        this.logger = Logger.getLogger(IlmateenistusApiReader.class.getName());
+        this.providerName = providerName;
+        this.feedVersion = feed.timestamp();
+        this.timestamp = parseTimestampOrNull(feedVersion);
+        for (IlmateenistusStation station : feed.stations())
+            add(station, true);
+    }
+
+    @Override
+    public String getProviderName() {
+        return providerName;
+    }
+
+    @Override
+    public String getFeedVersion() {
+        return feedVersion;
+    }
+
+    @Override
+    public Set<String> getStationNames() {
+        return Collections.unmodifiableSet(stationsByName.keySet());
+    }
+
+    @Override
+    public Set<Integer> getStationWmoCodes() {
+        return Collections.unmodifiableSet(stationsByWmoCode.keySet());
     }
 
     @Override
     public WeatherObservation findTheMostRecentObservationByStation(WeatherStation station) throws WeatherApiException {
         logger.info("Finding the most recent observation by given weather station from respones given by Ilmateenistus XML ticker API");
 
-        WeatherObservation observation = new WeatherObservation();
-        Node stationObservation = this.document.selectSingleNode("//name[text() = '" + station.getName() + "']/..");
-        if (stationObservation == null)
+        StationEntry entry = stationsByName.get(station.getName());
+        if (entry == null)
             throw new WeatherStationNotFoundException("Could not find weather station with name '" + station.getName() + "' from Ilmateenistus XML ticker API");
+        if (timestamp == null)
+            throw new WeatherApiException("Could not parse timestamp from weather observations API response");
 
+        WeatherObservation observation = new WeatherObservation();
         observation.setStation(station);
-        extractTimestamp(this.document.getRootElement().attributeValue("timestamp"), observation);
-        extractAirTemperature(stationObservation, observation);
-        extractWindSpeed(stationObservation, observation);
-        extractWeatherPhenomenonOrNull(stationObservation, observation);
-
+        observation.setTimestamp(timestamp);
+        extractAirTemperature(entry, observation);
+        extractWindSpeed(entry, observation);
+        if (entry.phenomenon() != null && !entry.phenomenon().isEmpty())
+            observation.setPhenomenon(PhenomenonClassifier.classify(entry.phenomenon()));
 
         return observation;
     }
 
     @Override
     public WeatherStation findWeatherStationByName(String name) {
-        Node stationNode = document.selectSingleNode("//name[text() = '" + name + "']/..");
-        if (stationNode == null)
+        StationEntry entry = stationsByName.get(name);
+        if (entry == null)
             return null;
 
         WeatherStation station = new WeatherStation();
         station.setName(name);
-        extractWmoCodeOrNull(stationNode, station);
-        extractLongitudeOrNull(stationNode, station);
-        extractLatitudeOrNull(stationNode, station);
+        station.setWmoCode(entry.wmoCode());
+        station.setLongitude(entry.longitude());
+        station.setLatitude(entry.latitude());
         return station;
     }
 
     @Override
     public WeatherStation findWeatherStationByWmoCode(Integer wmoCode) {
-        Node stationNode = document.selectSingleNode("//wmocode[text() = '" + wmoCode + "']/..");
-        if (stationNode == null)
+        StationEntry entry = stationsByWmoCode.get(wmoCode);
+        if (entry == null)
             return null;
 
-        try {
-            WeatherStation station = new WeatherStation();
-            extractName(stationNode, station);
-            extractLongitudeOrNull(stationNode, station);
-            extractLatitudeOrNull(stationNode, station);
-            station.setWmoCode(wmoCode);
-            return station;
-        }
-        catch (WeatherApiException e) {
+        if (entry.name() == null || entry.name().isEmpty()) {
             logger.warning("Could not extract station name from Ilmateenistus XML ticker API");
             return null;
         }
+
+        WeatherStation station = new WeatherStation();
+        station.setName(entry.name().trim());
+        station.setLongitude(entry.longitude());
+        station.setLatitude(entry.latitude());
+        station.setWmoCode(wmoCode);
+        return station;
     }
 
     @Override
     public List<WeatherStation> findAllStations() throws WeatherApiException {
         logger.info("Finding all stations from response given by ilmateenistus XML ticker API");
         List<WeatherStation> weatherStations = new ArrayList<>();
-        List<Node> stations = document.selectNodes("//station");
 
-        for (Node stationNode : stations) {
-            WeatherStation station = new WeatherStation();
-            extractName(stationNode, station);
-            extractWmoCodeOrNull(stationNode, station);
-            extractLongitudeOrNull(stationNode, station);
-            extractLatitudeOrNull(stationNode, station);
+        for (StationEntry entry : stations) {
+            if (entry.name() == null || entry.name().isEmpty())
+                throw new WeatherApiException("Could not find station name from Ilmateenistus XML ticker API response");
 
+            WeatherStation station = new WeatherStation();
+            station.setName(entry.name().trim());
+            station.setWmoCode(entry.wmoCode());
+            station.setLongitude(entry.longitude());
+            station.setLatitude(entry.latitude());
             weatherStations.add(station);
         }
 
@@ -99,43 +155,61 @@ public class IlmateenistusApiReader implements WeatherApiReader {
     }
 
     /*
-        Utility functions for extracting data from station tags
+        Single pass over the document, every element with a name or WMO code tag is considered a station
      */
-    private Node findSingleSubNodeOrNull(Node parent, String xpath) {
-        Node node = null;
-        try {
-            node = parent.selectSingleNode(xpath);
-        }
-        catch (InvalidXPathException e) {
-            logger.warning("XML parsing error: Could not find subnode specified with XPath '" + xpath + "' from parent '" + parent.getName() + "'");
+    private void index(Element element) {
+        boolean isStation = element.getName().equals("station");
+        if (isStation || element.element("name") != null || element.element("wmocode") != null) {
+            add(new IlmateenistusStation(element.elementText("name"), element.elementText("wmocode"),
+                element.elementText("longitude"), element.elementText("latitude"), element.elementText("airtemperature"),
+                element.elementText("windspeed"), element.elementText("phenomenon")), isStation);
         }
 
-        return node;
+        for (Element child : element.elements())
+            index(child);
     }
 
-    private void extractWeatherPhenomenonOrNull(Node station, WeatherObservation observation) {
-        Node phenomenon = findSingleSubNodeOrNull(station, ".//phenomenon");
-        if (phenomenon != null && !phenomenon.getText().isEmpty())
-            observation.setPhenomenon(PhenomenonClassifier.classify(phenomenon.getText())); // dummy
+    /*
+        The first station in document order wins when names or WMO codes repeat
+     */
+    private void add(IlmateenistusStation station, boolean isStation) {
+        StationEntry entry = new StationEntry(
+            station.name(),
+            parseWmoCodeOrNull(station.wmoCode()),
+            parseCoordinateOrNull(station.longitude(), "longitude"),
+            parseCoordinateOrNull(station.latitude(), "latitude"),
+            station.airTemperature(),
+            station.windSpeed(),
+            station.phenomenon()
+        );
+
+        if (isStation)
+            stations.add(entry);
+        if (entry.name() != null)
+            stationsByName.putIfAbsent(entry.name(), entry);
+        if (entry.wmoCode() != null)
+            stationsByWmoCode.putIfAbsent(entry.wmoCode(), entry);
     }
 
-    private void extractTimestamp(String timestampAttribute, WeatherObservation observation) throws WeatherApiException {
+    /*
+        Utility functions for extracting data from station tags
+     */
+    private LocalDateTime parseTimestampOrNull(String timestampAttribute) {
         try {
             long timestamp = Long.parseLong(timestampAttribute);
-            observation.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp), TimeZone.getDefault().toZoneId()));
+            return LocalDateTime.ofInstant(Instant.ofEpochSecond(timestamp), TimeZone.getDefault().toZoneId());
         }
         catch (NumberFormatException e) {
-            throw new WeatherApiException("Could not parse timestamp from weather observations API response");
+            return null;
         }
     }
 
-    private void extractAirTemperature(Node station, WeatherObservation observation) throws WeatherApiException {
-        Node airTemperature = findSingleSubNodeOrNull(station, ".//airtemperature");
-        if (airTemperature == null)
+    private void extractAirTemperature(StationEntry entry, WeatherObservation observation) throws WeatherApiException {
+        if (entry.airTemperature() == null)
             throw new WeatherApiException("<airtemperature> tag does not exist in weather station tag");
 
         try {
-            float temperature = Float.parseFloat(airTemperature.getText());
+            float temperature = Float.parseFloat(entry.airTemperature());
             observation.setAirtemperature(temperature);
         }
         catch (NumberFormatException e) {
@@ -143,13 +217,12 @@ public class IlmateenistusApiReader implements WeatherApiReader {
         }
     }
 
-    private void extractWindSpeed(Node station, WeatherObservation observation) throws WeatherApiException {
-        Node windSpeed = findSingleSubNodeOrNull(station, ".//windspeed");
-        if (windSpeed == null || windSpeed.getText().isEmpty())
+    private void extractWindSpeed(StationEntry entry, WeatherObservation observation) throws WeatherApiException {
+        if (entry.windSpeed() == null || entry.windSpeed().isEmpty())
             throw new WeatherApiException("Could not extract wind speed from weather station");
 
         try {
-            float wind = Float.parseFloat(windSpeed.getText());
+            float wind = Float.parseFloat(entry.windSpeed());
             observation.setWindSpeed(wind);
         }
         catch (NumberFormatException e) {
@@ -159,53 +232,29 @@ public class IlmateenistusApiReader implements WeatherApiReader {
         }
     }
 
-    private void extractName(Node stationNode, WeatherStation station) throws WeatherApiException {
-        Node nameNode = findSingleSubNodeOrNull(stationNode, ".//name");
-        if (nameNode == null || nameNode.getText().isEmpty())
-            throw new WeatherApiException("Could not find station name from Ilmateenistus XML ticker API response");
-
-        station.setName(nameNode.getText().trim());
-    }
-
-    private void extractWmoCodeOrNull(Node stationNode, WeatherStation station) {
-        Node wmoNode = findSingleSubNodeOrNull(stationNode, ".//wmocode");
-        if (wmoNode == null)
-            return;
+    private Integer parseWmoCodeOrNull(String wmoCode) {
+        if (wmoCode == null)
+            return null;
 
         try {
-            int wmo = Integer.parseInt(wmoNode.getText().trim());
-            station.setWmoCode(wmo);
+            return Integer.parseInt(wmoCode.trim());
         }
         catch (NumberFormatException e) {
             logger.warning("Could not parse wmo code from Ilmateenistus XML ticker API: " + e.getMessage());
+            return null;
         }
     }
 
-    private void extractLongitudeOrNull(Node stationNode, WeatherStation station) {
-        Node longitudeNode = findSingleSubNodeOrNull(stationNode, ".//longitude");
-        if (longitudeNode == null)
-            return;
-
-        try {
-            double longitude = Double.parseDouble(longitudeNode.getText().trim());
-            station.setLongitude(longitude);
-        }
-        catch (NumberFormatException e) {
-            logger.warning("Could not parse station's longitude from Ilmateenistus XML ticker API: " + e.getMessage());
-        }
-    }
-
-    private void extractLatitudeOrNull(Node stationNode, WeatherStation station) {
-        Node latitudeNode = findSingleSubNodeOrNull(stationNode, ".//latitude");
-        if (latitudeNode == null)
-            return;
+    private Double parseCoordinateOrNull(String coordinate, String tag) {
+        if (coordinate == null)
+            return null;
 
         try {
-            double latitude = Double.parseDouble(latitudeNode.getText().trim());
-            station.setLatitude(latitude);
+            return Double.parseDouble(coordinate.trim());
         }
         catch (NumberFormatException e) {
-            logger.warning("Could not parse station's latitude from Ilmateenistus XML ticker API: " + e.getMessage());
+            logger.warning("Could not parse station's " + tag + " from Ilmateenistus XML ticker API: " + e.getMessage());
+            return null;
         }
     }
 }
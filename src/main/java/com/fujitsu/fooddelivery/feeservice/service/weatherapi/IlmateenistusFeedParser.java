@@ -0,0 +1,112 @@
+package com.fujitsu.fooddelivery.feeservice.service.weatherapi;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming StAX parser for Ilmateenistus XML ticker API responses.<br>
+ * Station tags are converted directly into IlmateenistusStation records without building a document tree,
+ * thus memory usage is proportional to the extracted values rather than to the size of the document.
+ */
+public final class IlmateenistusFeedParser {
+    private static final XMLInputFactory FACTORY = makeInputFactory();
+
+    /**
+     * Parsed Ilmateenistus XML ticker API response
+     * @param timestamp the raw timestamp attribute of the root tag, null if missing
+     * @param stations all station tags in document order
+     */
+    public record Feed(String timestamp, List<IlmateenistusStation> stations) {}
+
+    private IlmateenistusFeedParser() {}
+
+    /**
+     * Parses the given Ilmateenistus XML ticker API response
+     * @param input specifies the input stream of the response, which is not closed by this method
+     * @return a Feed instance
+     * @throws XMLStreamException when the response is not well-formed XML
+     */
+    public static Feed parse(InputStream input) throws XMLStreamException {
+        return parse(input, null);
+    }
+
+    /**
+     * Parses the given Ilmateenistus XML ticker API response unless it carries an already known timestamp
+     * @param input specifies the input stream of the response, which is not closed by this method
+     * @param knownTimestamp specifies the timestamp of the previously parsed response, null to always parse
+     * @return a Feed instance or null if the root timestamp equals the known timestamp, in which case the stations are not read
+     * @throws XMLStreamException when the response is not well-formed XML
+     */
+    public static Feed parse(InputStream input, String knownTimestamp) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(input);
+        try {
+            String timestamp = null;
+            List<IlmateenistusStation> stations = new ArrayList<>();
+            Map<String, String> fields = null;
+            StringBuilder text = new StringBuilder();
+            String field = null;
+            int depth = 0;
+            int stationDepth = -1;
+
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        depth++;
+                        if (depth == 1) {
+                            timestamp = reader.getAttributeValue(null, "timestamp");
+                            if (knownTimestamp != null && knownTimestamp.equals(timestamp))
+                                return null;
+                        }
+                        else if (fields == null && reader.getLocalName().equals("station")) {
+                            fields = new HashMap<>();
+                            stationDepth = depth;
+                        }
+                        else if (fields != null && depth == stationDepth + 1) {
+                            field = reader.getLocalName();
+                            text.setLength(0);
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        if (field != null && depth == stationDepth + 1)
+                            text.append(reader.getText());
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (field != null && depth == stationDepth + 1) {
+                            fields.putIfAbsent(field, text.toString());
+                            field = null;
+                        }
+                        else if (fields != null && depth == stationDepth) {
+                            stations.add(new IlmateenistusStation(fields.get("name"), fields.get("wmocode"),
+                                fields.get("longitude"), fields.get("latitude"), fields.get("airtemperature"),
+                                fields.get("windspeed"), fields.get("phenomenon")));
+                            fields = null;
+                        }
+                        depth--;
+                    }
+                    default -> {}
+                }
+            }
+
+            return new Feed(timestamp, stations);
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    private static XMLInputFactory makeInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // the response comes from an external source, thus resolving DTDs and external entities is not allowed
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
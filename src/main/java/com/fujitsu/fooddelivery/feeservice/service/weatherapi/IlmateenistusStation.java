@@ -0,0 +1,8 @@
+package com.fujitsu.fooddelivery.feeservice.service.weatherapi;
+
+/**
+ * Lightweight, unparsed contents of a single station tag of Ilmateenistus XML ticker API response.
+ * Each value is the text of the first child tag with given name or null if the tag does not exist.
+ */
+public record IlmateenistusStation(String name, String wmoCode, String longitude, String latitude,
+                                   String airTemperature, String windSpeed, String phenomenon) {}
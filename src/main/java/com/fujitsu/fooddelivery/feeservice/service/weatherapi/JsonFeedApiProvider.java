@@ -0,0 +1,56 @@
+package com.fujitsu.fooddelivery.feeservice.service.weatherapi;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Weather API provider for JSON observation feeds, for instance from national weather services outside of Estonia
+ * or from an aggregating proxy. The provider has no public endpoint, it is enabled by configuring weatherapi.provider.json.endpoint.
+ * The expected document format is:
+ * <pre>
+ * {"timestamp": 1710000000, "stations": [{"name": "Riga", "wmoCode": 26422, "longitude": 24.12, "latitude": 56.95,
+ *   "airTemperature": -1.5, "windSpeed": 3.2, "phenomenon": "Light snow shower"}]}
+ * </pre>
+ */
+@Component
+public class JsonFeedApiProvider implements WeatherApiProvider {
+    public static final String NAME = "json";
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDefaultEndpoint() {
+        return null;
+    }
+
+    @Override
+    public int getDefaultPriority() {
+        return 200;
+    }
+
+    @Override
+    public WeatherApiReader read(InputStream input, String knownFeedVersion) throws IOException {
+        try {
+            JsonFeedApiReader.Feed feed = MAPPER.readValue(input, JsonFeedApiReader.Feed.class);
+            if (feed == null)
+                throw new IOException("JSON weather feed is empty");
+            if (knownFeedVersion != null && feed.timestamp() != null && knownFeedVersion.equals(feed.timestamp().toString()))
+                return null;
+            return new JsonFeedApiReader(getName(), feed);
+        }
+        catch (JacksonException e) {
+            throw new IOException("JSON weather feed is malformed: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.fujitsu.fooddelivery.feeservice.service.weatherapi;
+
+import com.fujitsu.fooddelivery.feeservice.exception.WeatherApiException;
+import com.fujitsu.fooddelivery.feeservice.exception.WeatherStationNotFoundException;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.classifier.PhenomenonClassifier;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * WeatherApiReader implementation for JSON observation feeds read by JsonFeedApiProvider.<br>
+ * Every station is indexed by its name and WMO code upon construction, the first station wins when they repeat.
+ */
+public class JsonFeedApiReader implements WeatherApiReader {
+    private final String providerName;
+    private final Long feedTimestamp;
+    private final LocalDateTime timestamp;
+    private final List<Station> stations = new ArrayList<>();
+    private final Map<String, Station> stationsByName = new HashMap<>();
+    private final Map<Integer, Station> stationsByWmoCode = new HashMap<>();
+
+    /**
+     * JSON observation feed
+     * @param timestamp the time of observations in unix seconds
+     * @param stations all stations of the feed
+     */
+    public record Feed(Long timestamp, List<Station> stations) {}
+
+    /**
+     * A single station of JSON observation feed, missing values are null
+     */
+    public record Station(String name, Integer wmoCode, Double longitude, Double latitude,
+                          Float airTemperature, Float windSpeed, String phenomenon) {}
+
+    public JsonFeedApiReader(Feed feed) {
+        this(JsonFeedApiProvider.NAME, feed);
+    }
+
+    /**
+     * @param providerName specifies the name of the provider whose feed is read
+     * @param feed specifies the feed to read
+     */
+    public JsonFeedApiReader(String providerName, Feed feed) {
+        this.providerName = providerName;
+        this.feedTimestamp = feed.timestamp();
+        this.timestamp = feedTimestamp == null ? null : LocalDateTime.ofInstant(Instant.ofEpochSecond(feedTimestamp), TimeZone.getDefault().toZoneId());
+        if (feed.stations() == null)
+            return;
+
+        for (Station station : feed.stations()) {
+            if (station == null || station.name() == null || station.name().isBlank())
+                continue;
+            stations.add(station);
+            stationsByName.putIfAbsent(station.name(), station);
+            if (station.wmoCode() != null)
+                stationsByWmoCode.putIfAbsent(station.wmoCode(), station);
+        }
+    }
+
+    @Override
+    public String getProviderName() {
+        return providerName;
+    }
+
+    @Override
+    public String getFeedVersion() {
+        return feedTimestamp == null ? null : feedTimestamp.toString();
+    }
+
+    @Override
+    public Set<String> getStationNames() {
+        return Collections.unmodifiableSet(stationsByName.keySet());
+    }
+
+    @Override
+    public Set<Integer> getStationWmoCodes() {
+        return Collections.unmodifiableSet(stationsByWmoCode.keySet());
+    }
+
+    @Override
+    public WeatherObservation findTheMostRecentObservationByStation(WeatherStation station) throws WeatherApiException {
+        Station entry = stationsByName.get(station.getName());
+        if (entry == null)
+            throw new WeatherStationNotFoundException("Could not find weather station with name '" + station.getName() + "' from JSON weather feed");
+        if (timestamp == null)
+            throw new WeatherApiException("Could not parse timestamp from JSON weather feed");
+        if (entry.airTemperature() == null)
+            throw new WeatherApiException("Air temperature does not exist in JSON weather feed station '" + entry.name() + "'");
+        if (entry.windSpeed() == null)
+            throw new WeatherApiException("Wind speed does not exist in JSON weather feed station '" + entry.name() + "'");
+
+        WeatherObservation observation = new WeatherObservation();
+        observation.setStation(station);
+        observation.setTimestamp(timestamp);
+        observation.setAirtemperature(entry.airTemperature());
+        observation.setWindSpeed(entry.windSpeed());
+        if (entry.phenomenon() != null && !entry.phenomenon().isEmpty())
+            observation.setPhenomenon(PhenomenonClassifier.classify(entry.phenomenon()));
+        return observation;
+    }
+
+    @Override
+    public WeatherStation findWeatherStationByName(String name) {
+        Station entry = stationsByName.get(name);
+        return entry == null ? null : toWeatherStation(entry);
+    }
+
+    @Override
+    public WeatherStation findWeatherStationByWmoCode(Integer wmo) {
+        Station entry = stationsByWmoCode.get(wmo);
+        return entry == null ? null : toWeatherStation(entry);
+    }
+
+    @Override
+    public List<WeatherStation> findAllStations() {
+        List<WeatherStation> weatherStations = new ArrayList<>();
+        for (Station entry : stations)
+            weatherStations.add(toWeatherStation(entry));
+        return weatherStations;
+    }
+
+    private static WeatherStation toWeatherStation(Station entry) {
+        WeatherStation station = new WeatherStation();
+        station.setName(entry.name().trim());
+        station.setWmoCode(entry.wmoCode());
+        station.setLongitude(entry.longitude());
+        station.setLatitude(entry.latitude());
+        return station;
+    }
+}
@@ -6,8 +6,35 @@ import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
 import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
 
 import java.util.List;
+import java.util.Set;
 
 public interface WeatherApiReader {
+    /**
+     * Returns the name of the provider the reader was built by, several providers may share a reader implementation
+     * @return the name of the provider
+     */
+    String getProviderName();
+
+    /**
+     * Returns the version of the provider data the reader was built from, such as the feed timestamp
+     * @return a version string that changes whenever the provider publishes new data, null if the provider has none
+     */
+    default String getFeedVersion() {
+        return null;
+    }
+
+    /**
+     * Returns the names of all stations the reader knows, used for mapping stations to providers
+     * @return an unmodifiable set of station names
+     */
+    Set<String> getStationNames();
+
+    /**
+     * Returns the WMO codes of all stations the reader knows, used for mapping stations to providers
+     * @return an unmodifiable set of WMO codes
+     */
+    Set<Integer> getStationWmoCodes();
+
     /**
      * Finds the most recent observation made by given weather station
      * @param station station whose observation to query
@@ -1,9 +1,88 @@
 package com.fujitsu.fooddelivery.feeservice.service.weatherapi.classifier;
 
 import com.fujitsu.fooddelivery.feeservice.model.WeatherPhenomenonClassification;
-import java.util.regex.Pattern;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classifies weather phenomenon strings of external weather APIs.<br>
+ * Classes are tried in the following priority order, matching is ASCII case insensitive:
+ * <ol>
+ *   <li>CLOUDY - contains "cloud" or "overcast"</li>
+ *   <li>SNOW - a single word followed by " snow", for instance "Light snowfall"</li>
+ *   <li>RAIN - a single word followed by " shower" or " rain", for instance "Heavy shower"</li>
+ *   <li>GLAZE, SLEET, HAIL, MIST, FOG, THUNDER - contains the class name</li>
+ * </ol>
+ * Everything else, including strings that span multiple lines, is CLEAR. The keywords are matched in a single pass
+ * with a precompiled keyword trie, and results are memoized as the feeds use a small vocabulary of phenomenon strings.
+ */
 public class PhenomenonClassifier {
+    // feeds use a few dozen distinct strings, the bound only protects against feeds generating unique strings
+    private static final int MEMO_CAPACITY = 1024;
+    private static final Map<String, WeatherPhenomenonClassification> MEMO = new ConcurrentHashMap<>();
+
+    private static final WeatherPhenomenonClassification[] CONTAINED_PRIORITY = {
+        WeatherPhenomenonClassification.GLAZE,
+        WeatherPhenomenonClassification.SLEET,
+        WeatherPhenomenonClassification.HAIL,
+        WeatherPhenomenonClassification.MIST,
+        WeatherPhenomenonClassification.FOG,
+        WeatherPhenomenonClassification.THUNDER
+    };
+    private static final KeywordTrie CONTAINED_KEYWORDS = new KeywordTrie(
+        new String[] {"cloud", "overcast", "glaze", "sleet", "hail", "mist", "fog", "thunder"},
+        new WeatherPhenomenonClassification[] {
+            WeatherPhenomenonClassification.CLOUDY, WeatherPhenomenonClassification.CLOUDY,
+            WeatherPhenomenonClassification.GLAZE, WeatherPhenomenonClassification.SLEET, WeatherPhenomenonClassification.HAIL,
+            WeatherPhenomenonClassification.MIST, WeatherPhenomenonClassification.FOG, WeatherPhenomenonClassification.THUNDER
+        });
+
+    /**
+     * Trie of lower case ASCII keywords, every node has a transition table indexed by letter
+     */
+    private static final class KeywordTrie {
+        private final int[][] transitions;
+        private final WeatherPhenomenonClassification[] terminals;
+
+        KeywordTrie(String[] keywords, WeatherPhenomenonClassification[] classifications) {
+            int nodes = 1;
+            for (String keyword : keywords)
+                nodes += keyword.length();
+            transitions = new int[nodes][26];
+            terminals = new WeatherPhenomenonClassification[nodes];
+
+            int allocated = 1;
+            for (int i = 0; i < keywords.length; i++) {
+                int node = 0;
+                for (char c : keywords[i].toCharArray()) {
+                    if (transitions[node][c - 'a'] == 0)
+                        transitions[node][c - 'a'] = allocated++;
+                    node = transitions[node][c - 'a'];
+                }
+                terminals[node] = classifications[i];
+            }
+        }
+
+        /**
+         * @return a bit set of the ordinals of classifications whose keyword occurs in given lower case string
+         */
+        int findAll(char[] lowerCase) {
+            int found = 0;
+            for (int start = 0; start < lowerCase.length; start++) {
+                int node = 0;
+                for (int i = start; i < lowerCase.length; i++) {
+                    int letter = lowerCase[i] - 'a';
+                    if (letter < 0 || letter >= 26 || (node = transitions[node][letter]) == 0)
+                        break;
+                    if (terminals[node] != null)
+                        found |= 1 << terminals[node].ordinal();
+                }
+            }
+            return found;
+        }
+    }
+
     /**
      * Classifies the weather phenomenon string into WeatherPhenomenonClassification enum value
      * @param phenomenon specifies the string to classify
@@ -13,42 +92,60 @@ public class PhenomenonClassifier {
         if (phenomenon == null)
             return WeatherPhenomenonClassification.CLEAR;
 
-        Pattern p = Pattern.compile("^.*(cloud.*|overcast).*$", Pattern.CASE_INSENSITIVE);
-        if (p.matcher(phenomenon).matches())
-            return WeatherPhenomenonClassification.CLOUDY;
-
-        p = Pattern.compile("^[A-Za-z]+ snow.*$", Pattern.CASE_INSENSITIVE);
-        if (p.matcher(phenomenon).matches())
-            return WeatherPhenomenonClassification.SNOW;
-
-        p = Pattern.compile("^[A-Za-z]+ (shower|rain).*$", Pattern.CASE_INSENSITIVE);
-        if (p.matcher(phenomenon).matches())
-            return WeatherPhenomenonClassification.RAIN;
-
-        p = Pattern.compile("^.*glaze.*$", Pattern.CASE_INSENSITIVE);
-        if (p.matcher(phenomenon).matches())
-            return WeatherPhenomenonClassification.GLAZE;
+        WeatherPhenomenonClassification classification = MEMO.get(phenomenon);
+        if (classification == null) {
+            classification = compute(phenomenon);
+            if (MEMO.size() < MEMO_CAPACITY)
+                MEMO.putIfAbsent(phenomenon, classification);
+        }
+        return classification;
+    }
 
-        p = Pattern.compile("^.*sleet.*$", Pattern.CASE_INSENSITIVE);
-        if (p.matcher(phenomenon).matches())
-            return WeatherPhenomenonClassification.SLEET;
+    private static WeatherPhenomenonClassification compute(String phenomenon) {
+        char[] lowerCase = new char[phenomenon.length()];
+        for (int i = 0; i < lowerCase.length; i++) {
+            char c = phenomenon.charAt(i);
+            if (isLineTerminator(c))
+                return WeatherPhenomenonClassification.CLEAR;
+            lowerCase[i] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
 
-        p = Pattern.compile("^.*hail.*$", Pattern.CASE_INSENSITIVE);
-        if (p.matcher(phenomenon).matches())
-            return WeatherPhenomenonClassification.HAIL;
+        int found = CONTAINED_KEYWORDS.findAll(lowerCase);
+        if ((found & 1 << WeatherPhenomenonClassification.CLOUDY.ordinal()) != 0)
+            return WeatherPhenomenonClassification.CLOUDY;
 
-        p = Pattern.compile("^.*mist.*$", Pattern.CASE_INSENSITIVE);
-        if (p.matcher(phenomenon).matches())
-            return WeatherPhenomenonClassification.MIST;
+        // a leading word of ASCII letters followed by a single space
+        int space = 0;
+        while (space < lowerCase.length && lowerCase[space] >= 'a' && lowerCase[space] <= 'z')
+            space++;
+        if (space > 0 && space < lowerCase.length && lowerCase[space] == ' ') {
+            if (startsWith(lowerCase, space + 1, "snow"))
+                return WeatherPhenomenonClassification.SNOW;
+            if (startsWith(lowerCase, space + 1, "shower") || startsWith(lowerCase, space + 1, "rain"))
+                return WeatherPhenomenonClassification.RAIN;
+        }
 
-        p = Pattern.compile("^.*fog.*$", Pattern.CASE_INSENSITIVE);
-        if (p.matcher(phenomenon).matches())
-            return WeatherPhenomenonClassification.FOG;
+        for (WeatherPhenomenonClassification contained : CONTAINED_PRIORITY) {
+            if ((found & 1 << contained.ordinal()) != 0)
+                return contained;
+        }
+        return WeatherPhenomenonClassification.CLEAR;
+    }
 
-        p = Pattern.compile("^.*thunder.*$", Pattern.CASE_INSENSITIVE);
-        if (p.matcher(phenomenon).matches())
-            return WeatherPhenomenonClassification.THUNDER;
+    private static boolean startsWith(char[] lowerCase, int offset, String prefix) {
+        if (lowerCase.length - offset < prefix.length())
+            return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (lowerCase[offset + i] != prefix.charAt(i))
+                return false;
+        }
+        return true;
+    }
 
-        return WeatherPhenomenonClassification.CLEAR;
+    /*
+        Line terminators recognized by java.util.regex, which the previously used patterns did not match across
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 }
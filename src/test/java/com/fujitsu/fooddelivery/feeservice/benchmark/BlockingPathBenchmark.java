@@ -0,0 +1,276 @@
+package com.fujitsu.fooddelivery.feeservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fujitsu.fooddelivery.feeservice.fake.FakeWeatherProviderServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the request throughput of the application on Tomcat's bounded platform thread pool against virtual threads.
+ * The first round creates locations through POST /api/locations, which resolves its weather station by name with
+ * WeatherStationQueryServiceImpl.findByName and stores the location with JPA. Stations are first unknown to the
+ * database, thus their lookups fall back to the feed snapshot, which expires every second and is fetched from the
+ * local fake provider with injected latency. The second round updates every created location through
+ * PUT /api/locations/{id} with the name of its then stored station.<br>
+ * Both rounds are measured again against a slow database, where every SQL statement is delayed by a DataSource proxy,
+ * and reported next to the slow API measurements. The update round then waits for the database alone.<br>
+ * Run with: mvn test -Dtest=BlockingPathBenchmark -Dbenchmark=true
+ * (virtual thread measurements are skipped unless the tests are run on Java 21 or newer).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class BlockingPathBenchmark {
+    private static final int REQUESTS = 2000;
+    // twice the default value of server.tomcat.threads.max, so that platform threads are the bottleneck
+    private static final int CLIENT_THREADS = 400;
+    private static final Duration API_LATENCY = Duration.ofMillis(200);
+    private static final Duration DATABASE_LATENCY = Duration.ofMillis(20);
+
+    private static final Logger logger = Logger.getLogger(BlockingPathBenchmark.class.getName());
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static FakeWeatherProviderServer provider;
+
+    private static synchronized String providerEndpoint() {
+        try {
+            if (provider == null)
+                provider = new FakeWeatherProviderServer().stations(REQUESTS + 3).latency(API_LATENCY).start();
+            return provider.getEndpoint();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    public static synchronized void stopProvider() {
+        if (provider != null)
+            provider.stop();
+        provider = null;
+    }
+
+    private static void registerProperties(DynamicPropertyRegistry registry, String database) {
+        registry.add("weatherapi.provider.ilmateenistus.endpoint", BlockingPathBenchmark::providerEndpoint);
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("weatherapi.feed.ttl", () -> "1s");
+        registry.add("weatherapi.feed.refresh-ahead", () -> "0s");
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=false")
+    @DirtiesContext
+    public class PlatformThreads {
+        @LocalServerPort
+        private int port;
+
+        @DynamicPropertySource
+        public static void properties(DynamicPropertyRegistry registry) {
+            registerProperties(registry, "blocking-path-platform");
+        }
+
+        @Test
+        @DisplayName("Benchmark creating locations on platform threads")
+        public void benchmarkCreateLocations() throws Exception {
+            compare("platform threads", port);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=true")
+    @DirtiesContext
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public class VirtualThreads {
+        @LocalServerPort
+        private int port;
+
+        @DynamicPropertySource
+        public static void properties(DynamicPropertyRegistry registry) {
+            registerProperties(registry, "blocking-path-virtual");
+        }
+
+        @Test
+        @DisplayName("Benchmark creating locations on virtual threads")
+        public void benchmarkCreateLocations() throws Exception {
+            compare("virtual threads", port);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=false")
+    @Import(SlowDatabaseConfiguration.class)
+    @DirtiesContext
+    public class SlowDatabasePlatformThreads {
+        @LocalServerPort
+        private int port;
+
+        @DynamicPropertySource
+        public static void properties(DynamicPropertyRegistry registry) {
+            registerProperties(registry, "blocking-path-slow-database-platform");
+        }
+
+        @Test
+        @DisplayName("Benchmark creating locations against a slow database on platform threads")
+        public void benchmarkCreateLocations() throws Exception {
+            compare("platform threads, slow database", port);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=true")
+    @Import(SlowDatabaseConfiguration.class)
+    @DirtiesContext
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public class SlowDatabaseVirtualThreads {
+        @LocalServerPort
+        private int port;
+
+        @DynamicPropertySource
+        public static void properties(DynamicPropertyRegistry registry) {
+            registerProperties(registry, "blocking-path-slow-database-virtual");
+        }
+
+        @Test
+        @DisplayName("Benchmark creating locations against a slow database on virtual threads")
+        public void benchmarkCreateLocations() throws Exception {
+            compare("virtual threads, slow database", port);
+        }
+    }
+
+    /**
+     * Wraps the data source so that every executed SQL statement takes at least DATABASE_LATENCY
+     */
+    @TestConfiguration
+    static class SlowDatabaseConfiguration {
+        @Bean
+        public static BeanPostProcessor slowDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? delayed(bean, DataSource.class) : bean;
+                }
+            };
+        }
+
+        // connections and statements created by a delayed object are delayed as well
+        private static Object delayed(Object target, Class<?> type) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute"))
+                    Thread.sleep(DATABASE_LATENCY.toMillis());
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                }
+                catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return result != null && isDelayedType(method.getReturnType()) ? delayed(result, method.getReturnType()) : result;
+            });
+        }
+
+        private static boolean isDelayedType(Class<?> type) {
+            return type == Connection.class || (type.isInterface() && Statement.class.isAssignableFrom(type));
+        }
+    }
+
+    private static void compare(String mode, int port) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        String locations = "http://127.0.0.1:" + port + "/api/locations";
+
+        List<HttpRequest> creates = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++)
+            creates.add(makeRequest(URI.create(locations), "POST", makeLocation("City-" + i, i + 4)));
+        long start = System.nanoTime();
+        List<String> created = run(client, creates);
+        logger.info(mode + ": creating " + REQUESTS + " locations of stations found in the feed took "
+            + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms");
+
+        List<HttpRequest> updates = new ArrayList<>(REQUESTS);
+        for (String body : created) {
+            JsonNode location = objectMapper.readTree(body);
+            String station = location.get("weatherStation").get("name").asText();
+            updates.add(makeRequest(URI.create(locations + "/" + location.get("id").asInt()), "PUT",
+                "{\"weatherStation\": {\"name\": \"" + station + "\"}}"));
+        }
+        start = System.nanoTime();
+        run(client, updates);
+        logger.info(mode + ": updating " + REQUESTS + " locations with stored stations took "
+            + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms");
+    }
+
+    private static HttpRequest makeRequest(URI uri, String method, String body) {
+        return HttpRequest.newBuilder(uri)
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private static List<String> run(HttpClient client, List<HttpRequest> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        try {
+            List<Future<HttpResponse<String>>> futures = new ArrayList<>(requests.size());
+            for (HttpRequest request : requests)
+                futures.add(executor.submit(() -> client.send(request, HttpResponse.BodyHandlers.ofString())));
+
+            List<String> bodies = new ArrayList<>(requests.size());
+            for (Future<HttpResponse<String>> future : futures) {
+                HttpResponse<String> response = future.get();
+                assertEquals(200, response.statusCode(), response.body());
+                bodies.add(response.body());
+            }
+            return bodies;
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    // stations after the three real ones are named Station-00004 and so on by the fake provider
+    private static String makeLocation(String city, int station) {
+        return String.format(Locale.ROOT, """
+            {
+              "country": "Estonia",
+              "city": "%s",
+              "currency": "EUR",
+              "regionalBaseFee": {"car": 4.00, "scooter": 3.50, "bike": 3.00},
+              "extraFees": [],
+              "weatherStation": {"name": "Station-%05d"}
+            }
+            """, city, station);
+    }
+}
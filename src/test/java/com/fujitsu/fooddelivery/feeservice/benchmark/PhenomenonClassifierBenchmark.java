@@ -0,0 +1,92 @@
+package com.fujitsu.fooddelivery.feeservice.benchmark;
+
+import com.fujitsu.fooddelivery.feeservice.model.WeatherPhenomenonClassification;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.classifier.PhenomenonClassifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares classification throughput of the precompiled, memoizing PhenomenonClassifier against the previous
+ * implementation, which compiled its regular expressions on every call. The previous implementation is kept here
+ * as a reference and both are checked to agree on every classified string.
+ * Run with: mvn test -Dtest=PhenomenonClassifierBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PhenomenonClassifierBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS = 10;
+    private static final int CLASSIFICATIONS = 1_000_000;
+    private static final String[] PHENOMENA = {
+        "Clear", "Few clouds", "Variable clouds", "Cloudy with clear spells", "Overcast", "Light snow shower",
+        "Moderate snow shower", "Heavy snow shower", "Light shower", "Moderate shower", "Heavy shower", "Light rain",
+        "Moderate rain", "Heavy rain", "Glaze", "Light sleet", "Moderate sleet", "Light snowfall", "Moderate snowfall",
+        "Heavy snowfall", "Blowing snow", "Drifting snow", "Hail", "Mist", "Fog", "Thunder", "Thunderstorm", ""
+    };
+
+    private static final Logger logger = Logger.getLogger(PhenomenonClassifierBenchmark.class.getName());
+
+    @Test
+    @DisplayName("Benchmark the precompiled classifier against compiling regular expressions on every call")
+    public void benchmarkClassification() {
+        String[] input = new String[CLASSIFICATIONS];
+        Random random = new Random(42);
+        for (int i = 0; i < input.length; i++)
+            input[i] = PHENOMENA[random.nextInt(PHENOMENA.length)];
+
+        for (String phenomenon : PHENOMENA)
+            assertEquals(classifyWithRegex(phenomenon), PhenomenonClassifier.classify(phenomenon));
+
+        measure("regex per call", input, PhenomenonClassifierBenchmark::classifyWithRegex);
+        measure("precompiled", input, PhenomenonClassifier::classify);
+    }
+
+    private static void measure(String name, String[] input, Function<String, WeatherPhenomenonClassification> classifier) {
+        int[] counts = new int[WeatherPhenomenonClassification.values().length];
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            for (String phenomenon : input)
+                counts[classifier.apply(phenomenon).ordinal()]++;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (String phenomenon : input)
+                counts[classifier.apply(phenomenon).ordinal()]++;
+        }
+        long elapsed = System.nanoTime() - start;
+        logger.info(name + ": " + ((long) ITERATIONS * input.length * 1_000_000_000L / elapsed) + " classifications/s ("
+            + counts[WeatherPhenomenonClassification.CLEAR.ordinal()] + " clear)");
+    }
+
+    /*
+        The implementation that preceded the precompiled classifier
+     */
+    private static WeatherPhenomenonClassification classifyWithRegex(String phenomenon) {
+        if (phenomenon == null)
+            return WeatherPhenomenonClassification.CLEAR;
+
+        Object[][] patterns = {
+            {"^.*(cloud.*|overcast).*$", WeatherPhenomenonClassification.CLOUDY},
+            {"^[A-Za-z]+ snow.*$", WeatherPhenomenonClassification.SNOW},
+            {"^[A-Za-z]+ (shower|rain).*$", WeatherPhenomenonClassification.RAIN},
+            {"^.*glaze.*$", WeatherPhenomenonClassification.GLAZE},
+            {"^.*sleet.*$", WeatherPhenomenonClassification.SLEET},
+            {"^.*hail.*$", WeatherPhenomenonClassification.HAIL},
+            {"^.*mist.*$", WeatherPhenomenonClassification.MIST},
+            {"^.*fog.*$", WeatherPhenomenonClassification.FOG},
+            {"^.*thunder.*$", WeatherPhenomenonClassification.THUNDER}
+        };
+        for (Object[] pattern : patterns) {
+            if (Pattern.compile((String) pattern[0], Pattern.CASE_INSENSITIVE).matcher(phenomenon).matches())
+                return (WeatherPhenomenonClassification) pattern[1];
+        }
+        return WeatherPhenomenonClassification.CLEAR;
+    }
+}
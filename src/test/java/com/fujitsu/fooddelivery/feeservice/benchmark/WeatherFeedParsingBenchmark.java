@@ -0,0 +1,77 @@
+package com.fujitsu.fooddelivery.feeservice.benchmark;
+
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusApiReader;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusFeedParser;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import org.dom4j.io.SAXReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compares latency and allocation of reading a large observations feed into a WeatherApiReader through the dom4j
+ * document path and through the streaming StAX path. The feed repeats the station fixture of IlmateenistusApiReaderTests.
+ * Run with: mvn test -Dtest=WeatherFeedParsingBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class WeatherFeedParsingBenchmark {
+    private static final int STATIONS = 20000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 20;
+
+    private static final Logger logger = Logger.getLogger(WeatherFeedParsingBenchmark.class.getName());
+
+    private interface FeedReader {
+        WeatherApiReader read(byte[] feed) throws Exception;
+    }
+
+    @Test
+    @DisplayName("Benchmark dom4j document parsing against StAX streaming parsing")
+    public void benchmarkFeedParsing() throws Exception {
+        byte[] feed = makeFeed();
+        measure("dom4j", feed, bytes -> new IlmateenistusApiReader(new SAXReader().read(new ByteArrayInputStream(bytes))));
+        measure("StAX", feed, bytes -> new IlmateenistusApiReader(IlmateenistusFeedParser.parse(new ByteArrayInputStream(bytes))));
+    }
+
+    private static void measure(String name, byte[] feed, FeedReader reader) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            assertNotNull(reader.read(feed).findWeatherStationByWmoCode(STATIONS - 1));
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+            assertNotNull(reader.read(feed).findWeatherStationByWmoCode(STATIONS - 1));
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+
+        logger.info(name + ": " + (elapsed / ITERATIONS / 1_000_000.0) + " ms and "
+            + (allocated / ITERATIONS / (1024 * 1024)) + " MiB allocated per feed of " + STATIONS + " stations ("
+            + (feed.length / 1024) + " KiB)");
+    }
+
+    private static byte[] makeFeed() {
+        StringBuilder xml = new StringBuilder("<observations timestamp=\"1337000\">\n");
+        for (int i = 0; i < STATIONS; i++) {
+            xml.append("""
+                <station>
+                    <name>Kuressaare linn %d</name>
+                    <wmocode>%d</wmocode>
+                    <longitude>22.48944444411111</longitude>
+                    <latitude>58.26416666666667</latitude>
+                    <phenomenon>Light snow shower</phenomenon>
+                    <airtemperature>-73.8</airtemperature>
+                    <windspeed>30.7</windspeed>
+                </station>
+                """.formatted(i, i));
+        }
+        return xml.append("</observations>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,140 @@
+package com.fujitsu.fooddelivery.feeservice.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures "latest" and "as-of" weather observation lookups against an in-memory H2 database seeded with millions
+ * of observations across hundreds of stations. The table and the lookups mirror the weather_observations schema and
+ * the queries of WeatherObservationRepository. Lookups are measured without any index and with the composite
+ * (station_id, timestamp DESC) index, at a fraction of the history and at the full history, so that the growth of
+ * lookup latency with history size is visible.
+ * Run with: mvn test -Dtest=WeatherObservationLookupBenchmark -Dbenchmark=true [-Dbenchmark.rows=2000000 -Dbenchmark.stations=200]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class WeatherObservationLookupBenchmark {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 2_000_000);
+    private static final int STATIONS = Integer.getInteger("benchmark.stations", 200);
+    private static final int INDEXED_LOOKUPS = 20000;
+    // without an index every lookup scans the table, thus far fewer of them are affordable
+    private static final int UNINDEXED_LOOKUPS = 50;
+    private static final int INSERT_BATCH_SIZE = 10000;
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private static final String LATEST_SQL =
+        "SELECT id, phenomenon, airtemperature, wind_speed, timestamp FROM weather_observations "
+        + "WHERE station_id = ? ORDER BY station_id, timestamp DESC FETCH FIRST 1 ROWS ONLY";
+    private static final String AS_OF_SQL =
+        "SELECT id, phenomenon, airtemperature, wind_speed, timestamp FROM weather_observations "
+        + "WHERE station_id = ? AND timestamp <= ? ORDER BY station_id, timestamp DESC FETCH FIRST 1 ROWS ONLY";
+
+    private static final Logger logger = Logger.getLogger(WeatherObservationLookupBenchmark.class.getName());
+
+    @Test
+    @DisplayName("Benchmark latest and as-of observation lookups with and without the composite index")
+    public void benchmarkLookups() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:lookup-benchmark;DB_CLOSE_DELAY=-1")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE weather_observations (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "station_id INTEGER, timestamp TIMESTAMP(6), phenomenon VARCHAR(255), airtemperature REAL, wind_speed REAL)");
+            }
+
+            // observations are hourly per station, the first half of the history is seeded before the first measurement
+            int hoursPerStation = ROWS / STATIONS;
+            seed(connection, 0, hoursPerStation / 2);
+            measureAll(connection, "unindexed", hoursPerStation / 2, UNINDEXED_LOOKUPS);
+            createIndex(connection);
+            measureAll(connection, "indexed", hoursPerStation / 2, INDEXED_LOOKUPS);
+
+            seed(connection, hoursPerStation / 2, hoursPerStation);
+            measureAll(connection, "indexed", hoursPerStation, INDEXED_LOOKUPS);
+            dropIndex(connection);
+            measureAll(connection, "unindexed", hoursPerStation, UNINDEXED_LOOKUPS);
+        }
+    }
+
+    private static void seed(Connection connection, int fromHour, int toHour) throws SQLException {
+        long start = System.nanoTime();
+        Random random = new Random(42 + fromHour);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+            "INSERT INTO weather_observations (station_id, timestamp, phenomenon, airtemperature, wind_speed) VALUES (?, ?, ?, ?, ?)")) {
+            int batched = 0;
+            for (int hour = fromHour; hour < toHour; hour++) {
+                Timestamp timestamp = Timestamp.valueOf(START.plusHours(hour));
+                for (int station = 1; station <= STATIONS; station++) {
+                    insert.setInt(1, station);
+                    insert.setTimestamp(2, timestamp);
+                    insert.setString(3, random.nextInt(4) == 0 ? "RAIN" : null);
+                    insert.setFloat(4, -25 + random.nextFloat() * 50);
+                    insert.setFloat(5, random.nextFloat() * 25);
+                    insert.addBatch();
+                    if (++batched % INSERT_BATCH_SIZE == 0)
+                        insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        logger.info("Seeded " + ((long) (toHour - fromHour) * STATIONS) + " observations in "
+            + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static void createIndex(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX idx_weather_observations_station_timestamp_desc ON weather_observations (station_id, timestamp DESC)");
+        }
+    }
+
+    private static void dropIndex(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP INDEX idx_weather_observations_station_timestamp_desc");
+        }
+    }
+
+    private static void measureAll(Connection connection, String name, int hoursPerStation, int lookups) throws SQLException {
+        String history = ((long) hoursPerStation * STATIONS) + " rows";
+        measure(connection, name + " latest lookup, " + history, LATEST_SQL, false, hoursPerStation, lookups);
+        measure(connection, name + " as-of lookup, " + history, AS_OF_SQL, true, hoursPerStation, lookups);
+    }
+
+    private static void measure(Connection connection, String name, String sql, boolean asOf, int hoursPerStation, int lookups) throws SQLException {
+        Random random = new Random(7);
+        long[] latencies = new long[lookups];
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            // the first tenth of the lookups warms up the statement and is not recorded
+            for (int i = -lookups / 10; i < lookups; i++) {
+                query.setInt(1, 1 + random.nextInt(STATIONS));
+                if (asOf)
+                    query.setTimestamp(2, Timestamp.valueOf(START.plusMinutes(random.nextInt(hoursPerStation * 60))));
+
+                long start = System.nanoTime();
+                try (ResultSet result = query.executeQuery()) {
+                    assertTrue(result.next());
+                }
+                if (i >= 0)
+                    latencies[i] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(latencies);
+        logger.info(name + ": p50 " + latencies[lookups / 2] / 1000.0 + " µs, p99 "
+            + latencies[lookups * 99 / 100] / 1000.0 + " µs over " + lookups + " lookups");
+    }
+}
@@ -0,0 +1,85 @@
+package com.fujitsu.fooddelivery.feeservice.benchmark;
+
+import com.fujitsu.fooddelivery.feeservice.fake.FakeWeatherProviderServer;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProvider;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProviderRegistry;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiReaderFactory;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusApiProvider;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures fetching and importing a large generated feed from the local fake weather provider,
+ * so that the numbers are repeatable without network access.
+ * Run with: mvn test -Dtest=WeatherProviderFetchBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class WeatherProviderFetchBenchmark {
+    private static final int STATIONS = 10000;
+    private static final int ITERATIONS = 20;
+
+    private static final Logger logger = Logger.getLogger(WeatherProviderFetchBenchmark.class.getName());
+    private final WeatherApiProvider ilmateenistus = new IlmateenistusApiProvider();
+    private FakeWeatherProviderServer provider;
+
+    @AfterEach
+    public void stopProvider() {
+        provider.stop();
+    }
+
+    private WeatherApiReaderFactory makeFactory() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("weatherapi.provider.ilmateenistus.endpoint", provider.getEndpoint());
+        return new WeatherApiReaderFactory(new WeatherApiProviderRegistry(List.of(ilmateenistus), environment));
+    }
+
+    @Test
+    @DisplayName("Benchmark fetching and reading every station of a changing feed")
+    public void benchmarkChangingFeed() throws Exception {
+        provider = new FakeWeatherProviderServer().stations(STATIONS).start();
+        WeatherApiReaderFactory factory = makeFactory();
+        List<WeatherStation> stations = factory.makeWeatherApiReader(ilmateenistus).findAllStations();
+        assertEquals(STATIONS, stations.size());
+
+        long start = System.nanoTime();
+        int observations = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            WeatherApiReader reader = factory.makeWeatherApiReader(ilmateenistus);
+            for (WeatherStation station : stations) {
+                reader.findTheMostRecentObservationByStation(station);
+                observations++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        logger.info("Changing feed: " + (elapsed / ITERATIONS / 1_000_000.0) + " ms per fetch of " + STATIONS
+            + " stations, " + (observations * 1_000_000_000L / elapsed) + " observations/s");
+    }
+
+    @Test
+    @DisplayName("Benchmark polling an unchanged feed")
+    public void benchmarkUnchangedFeed() throws Exception {
+        provider = new FakeWeatherProviderServer().stations(STATIONS)
+            .timestamps(1710000000L, Duration.ofHours(1), Duration.ofDays(1))
+            .start();
+        WeatherApiReaderFactory factory = makeFactory();
+        WeatherApiReader first = factory.makeWeatherApiReader(ilmateenistus);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+            assertSame(first, factory.makeWeatherApiReader(ilmateenistus));
+        long elapsed = System.nanoTime() - start;
+        assertEquals(ITERATIONS, provider.getNotModified());
+        logger.info("Unchanged feed: " + (elapsed / ITERATIONS / 1_000_000.0) + " ms per conditional fetch of " + STATIONS + " stations");
+    }
+}
@@ -0,0 +1,269 @@
+package com.fujitsu.fooddelivery.feeservice.fake;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the Ilmateenistus XML ticker API, serving generated observations for load and soak testing.<br>
+ * The first stations are the real Tallinn, Tartu and Pärnu stations so that database seeding works against the fake,
+ * the rest are named Station-00004 and so on. Observation values are derived from the seed and the feed timestamp,
+ * thus two servers with the same settings serve identical feeds. The feed honours If-None-Match and gzip,
+ * it can inject latency and errors, and its timestamp advances over time like the real feed does.<br>
+ * Standalone usage, after mvn test-compile:
+ * <pre>
+ * java -cp target/test-classes com.fujitsu.fooddelivery.feeservice.fake.FakeWeatherProviderServer --port=8089 --stations=10000
+ * </pre>
+ */
+public class FakeWeatherProviderServer {
+    public static final String PATH = "/ilma_andmed/xml/observations.php";
+
+    private static final String[] REAL_STATIONS = {"Tallinn-Harku", "Tartu-Tõravere", "Pärnu"};
+    private static final int[] REAL_WMO_CODES = {26038, 26242, 41803};
+    private static final String[] PHENOMENA = {
+        "Clear", "Few clouds", "Variable clouds", "Cloudy with clear spells", "Overcast", "Light snow shower",
+        "Moderate snow shower", "Heavy snow shower", "Light shower", "Moderate shower", "Heavy shower", "Light rain",
+        "Moderate rain", "Heavy rain", "Glaze", "Light sleet", "Moderate sleet", "Light snowfall", "Moderate snowfall",
+        "Heavy snowfall", "Blowing snow", "Drifting snow", "Hail", "Mist", "Fog", "Thunder", "Thunderstorm", ""
+    };
+
+    private final Logger logger = Logger.getLogger(FakeWeatherProviderServer.class.getName());
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private int port = 0;
+    private int stations = 100;
+    private Duration latency = Duration.ZERO;
+    private double errorRate = 0.0;
+    private long seed = 42;
+    private long startTimestamp = 1710000000L;
+    private Duration timestampStep = Duration.ofHours(1);
+    private Duration advanceEvery = Duration.ZERO;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private Random errorRandom;
+    private Instant startedAt;
+
+    /**
+     * @param port specifies the port to listen on, 0 picks a free port
+     * @return this instance
+     */
+    public FakeWeatherProviderServer port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * @param stations specifies the number of station tags in the feed
+     * @return this instance
+     */
+    public FakeWeatherProviderServer stations(int stations) {
+        this.stations = stations;
+        return this;
+    }
+
+    /**
+     * @param latency specifies the delay before every response
+     * @return this instance
+     */
+    public FakeWeatherProviderServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * @param errorRate specifies the fraction of requests, between 0 and 1, that are answered with 503 Service Unavailable
+     * @return this instance
+     */
+    public FakeWeatherProviderServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * @param seed specifies the seed of generated observation values and injected errors
+     * @return this instance
+     */
+    public FakeWeatherProviderServer seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @param startTimestamp specifies the feed timestamp in unix seconds when the server starts
+     * @param timestampStep specifies how much the feed timestamp advances at a time
+     * @param advanceEvery specifies how often the timestamp advances, zero advances it on every request
+     * @return this instance
+     */
+    public FakeWeatherProviderServer timestamps(long startTimestamp, Duration timestampStep, Duration advanceEvery) {
+        this.startTimestamp = startTimestamp;
+        this.timestampStep = timestampStep;
+        this.advanceEvery = advanceEvery;
+        return this;
+    }
+
+    public FakeWeatherProviderServer start() throws IOException {
+        errorRandom = new Random(seed);
+        startedAt = Instant.now();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext(PATH, this::handle);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Fake weather provider with " + stations + " stations is listening at " + getEndpoint());
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the endpoint to configure as weatherapi.provider.ilmateenistus.endpoint
+     */
+    public String getEndpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * Generates the feed for given timestamp
+     * @param timestamp specifies the feed timestamp in unix seconds
+     * @return the feed as an UTF-8 encoded XML document
+     */
+    public byte[] generate(long timestamp) {
+        Random random = new Random(seed ^ timestamp);
+        StringBuilder xml = new StringBuilder(stations * 400);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<observations timestamp=\"").append(timestamp).append("\">\n");
+        for (int i = 0; i < stations; i++) {
+            String name = i < REAL_STATIONS.length ? REAL_STATIONS[i] : String.format(Locale.ROOT, "Station-%05d", i + 1);
+            int wmoCode = i < REAL_WMO_CODES.length ? REAL_WMO_CODES[i] : 100000 + i;
+            xml.append("\t<station>\n")
+                .append("\t\t<name>").append(name).append("</name>\n")
+                .append("\t\t<wmocode>").append(wmoCode).append("</wmocode>\n")
+                .append("\t\t<longitude>").append(format(21.5 + random.nextDouble() * 6.5, 6)).append("</longitude>\n")
+                .append("\t\t<latitude>").append(format(57.5 + random.nextDouble() * 2.2, 6)).append("</latitude>\n")
+                .append("\t\t<phenomenon>").append(PHENOMENA[random.nextInt(PHENOMENA.length)]).append("</phenomenon>\n")
+                .append("\t\t<airtemperature>").append(format(-25 + random.nextDouble() * 50, 1)).append("</airtemperature>\n")
+                .append("\t\t<windspeed>").append(format(random.nextDouble() * 25, 1)).append("</windspeed>\n")
+                .append("\t</station>\n");
+        }
+        xml.append("</observations>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long currentTimestamp(long request) {
+        long steps = advanceEvery.isZero()
+            ? request
+            : Duration.between(startedAt, Instant.now()).toMillis() / advanceEvery.toMillis();
+        return startTimestamp + steps * timestampStep.toSeconds();
+    }
+
+    private boolean injectError() {
+        synchronized (errorRandom) {
+            return errorRandom.nextDouble() < errorRate;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            long request = requests.getAndIncrement();
+            if (!latency.isZero())
+                Thread.sleep(latency.toMillis());
+
+            if (injectError()) {
+                errors.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            long timestamp = currentTimestamp(request);
+            String eTag = "\"" + timestamp + "\"";
+            exchange.getResponseHeaders().set("ETag", eTag);
+            if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            byte[] body = generate(timestamp);
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    private static String format(double value, int fractionDigits) {
+        return String.format(Locale.ROOT, "%." + fractionDigits + "f", value);
+    }
+
+    public static void main(String[] args) throws IOException {
+        FakeWeatherProviderServer server = new FakeWeatherProviderServer().port(8089);
+        Duration step = Duration.ofHours(1);
+        Duration advanceEvery = Duration.ofMinutes(1);
+        long startTimestamp = Instant.now().getEpochSecond();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            if (option.length != 2)
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            switch (option[0]) {
+                case "port" -> server.port(Integer.parseInt(option[1]));
+                case "stations" -> server.stations(Integer.parseInt(option[1]));
+                case "latency" -> server.latency(Duration.parse(option[1]));
+                case "error-rate" -> server.errorRate(Double.parseDouble(option[1]));
+                case "seed" -> server.seed(Long.parseLong(option[1]));
+                case "start-timestamp" -> startTimestamp = Long.parseLong(option[1]);
+                case "timestamp-step" -> step = Duration.parse(option[1]);
+                case "advance-every" -> advanceEvery = Duration.parse(option[1]);
+                default -> throw new IllegalArgumentException("Unknown option '" + option[0] + "'");
+            }
+        }
+        server.timestamps(startTimestamp, step, advanceEvery).start();
+    }
+}
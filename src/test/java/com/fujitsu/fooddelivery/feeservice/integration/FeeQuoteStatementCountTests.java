@@ -0,0 +1,141 @@
+package com.fujitsu.fooddelivery.feeservice.integration;
+
+import com.fujitsu.fooddelivery.feeservice.model.*;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteRequest;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteResult;
+import com.fujitsu.fooddelivery.feeservice.service.FeeQuoteService;
+import com.fujitsu.fooddelivery.feeservice.service.LocationSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.impl.FeeCalculationServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.impl.FeeQuoteServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.impl.LocationSnapshotServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.unit.EstonianLocationRulesFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements issued by fee quotes, locations and their rules are served from the warmed up snapshot,
+ * thus a batch of quotes should only query the current and the historical observations of its stations.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({FeeQuoteServiceImpl.class, LocationSnapshotServiceImpl.class, FeeCalculationServiceImpl.class})
+public class FeeQuoteStatementCountTests {
+    private static final LocalDateTime MIDNIGHT = LocalDateTime.of(2024, 3, 9, 0, 0);
+    private static final long MORNING = MIDNIGHT.plusHours(6).plusMinutes(30).toEpochSecond(ZoneOffset.UTC);
+
+    // the system clock of FeeApplication is defined as well
+    @TestConfiguration
+    static class FixedClockConfiguration {
+        @Bean
+        @Primary
+        public Clock fixedClock() {
+            return Clock.fixed(Instant.parse("2024-03-10T00:00:00Z"), ZoneOffset.UTC);
+        }
+    }
+
+    @Autowired
+    private FeeQuoteService feeQuoteService;
+
+    @Autowired
+    private LocationSnapshotService locationSnapshotService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void persistLocations() {
+        persistLocation(EstonianLocationRulesFactory.makeTallinnLocation(), WeatherStation.builder().name("Tallinn-Harku").wmoCode(26038).build());
+        persistLocation(EstonianLocationRulesFactory.makeTartuLocation(), WeatherStation.builder().name("Tartu-Tõravere").wmoCode(26242).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // the snapshot is warmed up on application start
+        locationSnapshotService.reload();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // clear mornings and snowy afternoons
+    private void persistLocation(Location location, WeatherStation station) {
+        entityManager.persist(station);
+        location.setWeatherStation(station);
+        location.getExtraFees().forEach(extraFee -> extraFee.setValidFrom(LocalDateTime.of(2024, 1, 1, 0, 0)));
+        entityManager.persist(location);
+
+        for (int hour = 0; hour < 24; hour++) {
+            WeatherObservation observation = new WeatherObservation();
+            observation.setStation(station);
+            observation.setTimestamp(MIDNIGHT.plusHours(hour));
+            observation.setAirtemperature(hour < 12 ? 5.0f : -2.1f);
+            observation.setWindSpeed(4.7f);
+            observation.setPhenomenon(hour < 12 ? WeatherPhenomenonClassification.CLEAR : WeatherPhenomenonClassification.SNOW);
+            entityManager.persist(observation);
+        }
+    }
+
+    @Test
+    @DisplayName("FeeQuoteService.quoteAll should quote a mixed batch of current and historical requests with one latest and one as-of statement")
+    public void testQuoteAll_MixedBatch_ExpectTwoStatements() {
+        List<FeeQuoteRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            requests.add(new FeeQuoteRequest(i % 2 == 0 ? "Tallinn" : "Tartu", "bike", null));
+            requests.add(new FeeQuoteRequest(i % 2 == 0 ? "Tallinn" : "Tartu", "bike", MORNING + i));
+        }
+
+        List<FeeQuoteResult> results = feeQuoteService.quoteAll(requests);
+        assertEquals(new BigDecimal("4.50"), results.get(0).result().fee());
+        assertEquals(new BigDecimal("3.00"), results.get(1).result().fee());
+        assertEquals(new BigDecimal("4.00"), results.get(2).result().fee());
+        assertEquals(new BigDecimal("2.50"), results.get(3).result().fee());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("FeeQuoteService.quoteAll should quote current requests with a single statement")
+    public void testQuoteAll_CurrentRequests_ExpectSingleStatement() {
+        List<FeeQuoteResult> results = feeQuoteService.quoteAll(List.of(
+            new FeeQuoteRequest("Tallinn", "scooter", null),
+            new FeeQuoteRequest("Tartu", "car", null)
+        ));
+        assertEquals(new BigDecimal("5.00"), results.get(0).result().fee());
+        assertEquals(new BigDecimal("3.50"), results.get(1).result().fee());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("FeeQuoteService.quoteAll should quote unixTimestamp requests with a single statement")
+    public void testQuoteAll_HistoricalRequests_ExpectSingleStatement() {
+        List<FeeQuoteResult> results = feeQuoteService.quoteAll(List.of(
+            new FeeQuoteRequest("Tallinn", "scooter", MORNING),
+            new FeeQuoteRequest("Tartu", "bike", MIDNIGHT.plusHours(18).toEpochSecond(ZoneOffset.UTC))
+        ));
+        assertEquals(new BigDecimal("3.50"), results.get(0).result().fee());
+        assertEquals(new BigDecimal("4.00"), results.get(1).result().fee());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
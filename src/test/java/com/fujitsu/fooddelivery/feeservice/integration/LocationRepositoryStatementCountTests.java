@@ -0,0 +1,112 @@
+package com.fujitsu.fooddelivery.feeservice.integration;
+
+import com.fujitsu.fooddelivery.feeservice.model.*;
+import com.fujitsu.fooddelivery.feeservice.model.repository.LocationRepository;
+import com.fujitsu.fooddelivery.feeservice.representation.SimplifiedLocationResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements issued when locations are loaded with their fee rules, so that N+1 loading of
+ * regional base fees, extra fees or weather stations is caught before it reaches the connection pool.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class LocationRepositoryStatementCountTests {
+    private static final int LOCATIONS = 1000;
+
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Integer firstLocationId;
+
+    @BeforeEach
+    public void persistLocations() {
+        for (int i = 0; i < LOCATIONS; i++) {
+            WeatherStation station = WeatherStation.builder().name("Station " + i).wmoCode(26000 + i).build();
+            entityManager.persist(station);
+
+            Location location = new Location();
+            location.setCity("City " + i);
+            location.setCountry("Estonia");
+            location.setCurrency("EUR");
+            location.setRegionalBaseFee(RegionalBaseFee.builder()
+                .car(new BigDecimal("4.00")).scooter(new BigDecimal("3.50")).bike(new BigDecimal("3.00")).build());
+            location.setWeatherStation(station);
+            List<ExtraFee> extraFees = new ArrayList<>();
+            extraFees.add(new AirTemperatureExtraFee(new BigDecimal("0.50"), VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, -10.f, 0.f));
+            extraFees.add(new WeatherPhenomenonExtraFee(new BigDecimal("0.00"), VehicleRule.NOT_APPLICABLE, VehicleRule.FORBIDDEN, VehicleRule.FORBIDDEN, WeatherPhenomenonClassification.GLAZE));
+            location.setExtraFees(extraFees);
+            entityManager.persist(location);
+
+            if (firstLocationId == null)
+                firstLocationId = location.getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // reads every association, so that lazily loaded ones would issue statements of their own
+    private static void touchRules(Location location) {
+        assertNotNull(location.getRegionalBaseFee().getCar());
+        assertNotNull(location.getWeatherStation().getName());
+        location.getExtraFees().forEach(extraFee -> assertNotNull(extraFee.getExtraFee()));
+    }
+
+    @Test
+    @DisplayName("LocationRepository.findWithRulesById should load a location with all of its fee rules in a single statement")
+    public void testFindWithRulesById_ExpectSingleStatement() {
+        Location location = locationRepository.findWithRulesById(firstLocationId).orElseThrow();
+        touchRules(location);
+
+        assertEquals(2, location.getExtraFees().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("LocationRepository.findAllWithRules should load every location with all of its fee rules in a single statement")
+    public void testFindAllWithRules_ThousandLocations_ExpectSingleStatement() {
+        List<Location> locations = locationRepository.findAllWithRules();
+        for (Location location : locations)
+            touchRules(location);
+
+        assertEquals(LOCATIONS, locations.size());
+        assertEquals(LOCATIONS * 2, locations.stream().mapToInt(location -> location.getExtraFees().size()).sum());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("LocationRepository.findAllSummaries should list every location in a single statement without loading entities")
+    public void testFindAllSummaries_ThousandLocations_ExpectSingleStatementWithoutEntities() {
+        List<SimplifiedLocationResponse> summaries = locationRepository.findAllSummaries();
+
+        assertEquals(LOCATIONS, summaries.size());
+        assertEquals(firstLocationId, summaries.get(0).id());
+        assertEquals("City 0", summaries.get(0).city());
+        assertEquals("EUR", summaries.get(0).currency());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,98 @@
+package com.fujitsu.fooddelivery.feeservice.integration;
+
+import com.fujitsu.fooddelivery.feeservice.model.Location;
+import com.fujitsu.fooddelivery.feeservice.model.RegionalBaseFee;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.LocationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Second-level and query cache entries are only written when a transaction commits, thus every repository call
+ * runs and commits in its own transaction here.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReferenceEntityCacheTests {
+    @Autowired
+    private LocationRepository locationRepository;
+
+    @Autowired
+    private WeatherStationRepository weatherStationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void clearStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void deleteAll() {
+        locationRepository.deleteAll();
+        weatherStationRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("WeatherStationRepository.findByName should be answered from the query cache until the station is updated")
+    public void testFindByName_RepeatedAndUpdated_ExpectCachedAndInvalidated() {
+        WeatherStation station = weatherStationRepository.save(WeatherStation.builder().name("Tallinn-Harku").wmoCode(26038).build());
+
+        assertTrue(weatherStationRepository.findByName("Tallinn-Harku").isPresent());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(weatherStationRepository.findByName("Tallinn-Harku").isPresent());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        station.setName("Tallinn-Harku 2");
+        weatherStationRepository.save(station);
+        assertTrue(weatherStationRepository.findByName("Tallinn-Harku").isEmpty());
+        assertEquals("Tallinn-Harku 2", weatherStationRepository.findByWmoCode(26038).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("LocationRepository.findById should be answered from the second-level cache and see updates of the location")
+    public void testFindById_RepeatedAndUpdated_ExpectCachedAndInvalidated() {
+        Location location = new Location();
+        location.setCity("Tallinn");
+        location.setCountry("Estonia");
+        location.setCurrency("EUR");
+        location.setRegionalBaseFee(RegionalBaseFee.builder()
+            .car(new BigDecimal("4.00")).scooter(new BigDecimal("3.50")).bike(new BigDecimal("3.00")).build());
+        location.setWeatherStation(weatherStationRepository.save(WeatherStation.builder().name("Tallinn-Harku").wmoCode(26038).build()));
+        location.setExtraFees(new ArrayList<>());
+        Integer id = locationRepository.save(location).getId();
+
+        locationRepository.findById(id).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+        Location cached = locationRepository.findById(id).orElseThrow();
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals("Tallinn", cached.getCity());
+        assertTrue(statistics.getCacheRegionStatistics("locations").getHitCount() > 0);
+
+        cached.setCity("Tartu");
+        locationRepository.save(cached);
+        assertEquals("Tartu", locationRepository.findById(id).orElseThrow().getCity());
+        assertTrue(locationRepository.findByCity("Tallinn").isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package com.fujitsu.fooddelivery.feeservice.integration;
+
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherPhenomenonClassification;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepositoryCustom.AsOfLookup;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class WeatherObservationRepositoryTests {
+    private static final LocalDateTime MIDNIGHT = LocalDateTime.of(2024, 3, 9, 0, 0);
+
+    @Autowired
+    private WeatherObservationRepository weatherObservationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private WeatherStation tallinn;
+    private WeatherStation tartu;
+
+    @BeforeEach
+    public void persistStations() {
+        tallinn = entityManager.persist(WeatherStation.builder().name("Tallinn-Harku").wmoCode(26038).build());
+        tartu = entityManager.persist(WeatherStation.builder().name("Tartu-Tõravere").wmoCode(26242).build());
+    }
+
+    private WeatherObservation makeObservation(WeatherStation station, LocalDateTime timestamp, float airtemperature) {
+        WeatherObservation observation = new WeatherObservation();
+        observation.setStation(station);
+        observation.setTimestamp(timestamp);
+        observation.setAirtemperature(airtemperature);
+        observation.setWindSpeed(3.0f);
+        observation.setPhenomenon(WeatherPhenomenonClassification.CLEAR);
+        return observation;
+    }
+
+    @Test
+    @DisplayName("WeatherObservationRepository.findAsOf should resolve every lookup to the newest observation at or before its time in a single statement")
+    public void testFindAsOf_MixedLookups_ExpectNewestObservationsInSingleStatement() {
+        for (int hour = 0; hour < 8; hour++) {
+            entityManager.persist(makeObservation(tallinn, MIDNIGHT.plusHours(hour), hour));
+            entityManager.persist(makeObservation(tartu, MIDNIGHT.plusHours(hour).plusMinutes(30), -hour));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AsOfLookup betweenObservations = new AsOfLookup(tallinn.getId(), MIDNIGHT.plusHours(3).plusMinutes(30));
+        AsOfLookup atObservation = new AsOfLookup(tallinn.getId(), MIDNIGHT.plusHours(7));
+        AsOfLookup sameAnswer = new AsOfLookup(tallinn.getId(), MIDNIGHT.plusHours(3).plusMinutes(45));
+        AsOfLookup otherStation = new AsOfLookup(tartu.getId(), MIDNIGHT.plusHours(3).plusMinutes(30));
+        AsOfLookup beforeFirstObservation = new AsOfLookup(tartu.getId(), MIDNIGHT.plusMinutes(29));
+
+        Map<AsOfLookup, WeatherObservation> observations = weatherObservationRepository.findAsOf(
+            List.of(betweenObservations, atObservation, sameAnswer, otherStation, beforeFirstObservation));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(4, observations.size());
+        assertEquals(MIDNIGHT.plusHours(3), observations.get(betweenObservations).getTimestamp());
+        assertEquals(MIDNIGHT.plusHours(7), observations.get(atObservation).getTimestamp());
+        assertEquals(MIDNIGHT.plusHours(3), observations.get(sameAnswer).getTimestamp());
+        assertEquals(MIDNIGHT.plusHours(3).plusMinutes(30), observations.get(otherStation).getTimestamp());
+        assertEquals(-3.f, observations.get(otherStation).getAirtemperature());
+        assertFalse(observations.containsKey(beforeFirstObservation));
+    }
+
+    @Test
+    @DisplayName("WeatherObservationRepository.findAsOf should not query the database without lookups")
+    public void testFindAsOf_NoLookups_ExpectEmpty() {
+        assertTrue(weatherObservationRepository.findAsOf(List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("WeatherObservationRepository.upsertAll should update overlapping observations in place when run twice")
+    public void testUpsertAll_OverlappingRuns_ExpectRowCountUnchangedAndValuesUpdated() {
+        List<WeatherObservation> first = List.of(
+            makeObservation(tallinn, MIDNIGHT, 1.0f),
+            makeObservation(tallinn, MIDNIGHT.plusHours(1), 2.0f),
+            makeObservation(tartu, MIDNIGHT, 3.0f));
+        assertEquals(3, weatherObservationRepository.upsertAll(first));
+        assertEquals(3, weatherObservationRepository.count());
+
+        WeatherObservation corrected = makeObservation(tallinn, MIDNIGHT.plusHours(1), -5.0f);
+        corrected.setPhenomenon(WeatherPhenomenonClassification.SNOW);
+        List<WeatherObservation> second = List.of(
+            makeObservation(tallinn, MIDNIGHT, 1.0f),
+            corrected,
+            makeObservation(tartu, MIDNIGHT, 3.0f));
+        assertEquals(3, weatherObservationRepository.upsertAll(second));
+        entityManager.clear();
+
+        List<WeatherObservation> observations = weatherObservationRepository.findAll();
+        assertEquals(3, observations.size());
+        WeatherObservation updated = observations.stream()
+            .filter(observation -> observation.getStation().getId().equals(tallinn.getId()) && observation.getTimestamp().equals(MIDNIGHT.plusHours(1)))
+            .findFirst().orElseThrow();
+        assertEquals(-5.0f, updated.getAirtemperature());
+        assertEquals(WeatherPhenomenonClassification.SNOW, updated.getPhenomenon());
+    }
+}
@@ -0,0 +1,59 @@
+package com.fujitsu.fooddelivery.feeservice.integration;
+
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationUniqueKeyMigration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Databases created before the unique (station_id, timestamp) constraint are simulated by dropping it, DDL statements
+ * commit implicitly, thus the test does not run in a transaction.
+ */
+@DataJpaTest
+@Import(WeatherObservationUniqueKeyMigration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class WeatherObservationUniqueKeyMigrationTests {
+    private static final String INSERT_SQL =
+        "INSERT INTO weather_observations (station_id, timestamp, airtemperature) VALUES (?, TIMESTAMP '2024-03-09 00:00:00', ?)";
+
+    @Autowired
+    private WeatherObservationUniqueKeyMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM weather_observations");
+        jdbcTemplate.update("DELETE FROM weather_stations");
+    }
+
+    @Test
+    @DisplayName("WeatherObservationUniqueKeyMigration.migrate should keep the duplicate observation with the highest ID and add the constraint")
+    public void testMigrate_DuplicateObservations_ExpectHighestIdKeptAndConstraintAdded() {
+        jdbcTemplate.update("INSERT INTO weather_stations (name, wmo_code) VALUES ('Tallinn-Harku', 26038)");
+        Integer stationId = jdbcTemplate.queryForObject("SELECT id FROM weather_stations", Integer.class);
+        jdbcTemplate.execute("ALTER TABLE weather_observations DROP CONSTRAINT " + WeatherObservationUniqueKeyMigration.CONSTRAINT_NAME);
+        jdbcTemplate.update(INSERT_SQL, stationId, 1.0f);
+        jdbcTemplate.update(INSERT_SQL, stationId, 2.0f);
+        jdbcTemplate.update(INSERT_SQL, stationId, 3.0f);
+
+        assertEquals(2, migration.migrate());
+        assertEquals(List.of(3.0f), jdbcTemplate.queryForList("SELECT airtemperature FROM weather_observations", Float.class));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(INSERT_SQL, stationId, 4.0f));
+
+        // the constraint exists now, thus the migration does nothing
+        assertEquals(0, migration.migrate());
+    }
+}
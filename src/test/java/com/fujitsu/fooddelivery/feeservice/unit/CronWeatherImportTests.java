@@ -0,0 +1,76 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.exception.WeatherApiException;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.CronWeatherImport;
+import com.fujitsu.fooddelivery.feeservice.service.LatestObservationService;
+import com.fujitsu.fooddelivery.feeservice.service.WeatherFeedSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.WeatherFeedSnapshot;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CronWeatherImportTests {
+    @Mock
+    private WeatherObservationRepository weatherObservationRepository;
+
+    @Mock
+    private WeatherStationRepository weatherStationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private WeatherFeedSnapshotService weatherFeedSnapshotService;
+
+    @Mock
+    private LatestObservationService latestObservationService;
+
+    // both readers are of the same mock class, like JSON feeds of two providers at different endpoints
+    @Mock
+    private WeatherApiReader riga;
+
+    @Mock
+    private WeatherApiReader vilnius;
+
+    @InjectMocks
+    private CronWeatherImport cronWeatherImport;
+
+    @Test
+    @DisplayName("CronWeatherImport should skip unchanged feeds of providers that share a reader implementation")
+    public void testScheduledWeatherDataImport_UnchangedFeedsOfSameReaderClass_ExpectSingleImport() throws WeatherApiException {
+        WeatherStation station = WeatherStation.builder().id(1).name("Riga").wmoCode(26422).build();
+        WeatherObservation observation = new WeatherObservation();
+        observation.setStation(station);
+
+        when(riga.getProviderName()).thenReturn("json-riga");
+        when(riga.getFeedVersion()).thenReturn("1710000000");
+        when(riga.getStationNames()).thenReturn(Set.of("Riga"));
+        when(riga.findTheMostRecentObservationByStation(station)).thenReturn(observation);
+        when(vilnius.getProviderName()).thenReturn("json-vilnius");
+        when(vilnius.getFeedVersion()).thenReturn("1710003600");
+        when(weatherStationRepository.findAll()).thenReturn(List.of(station));
+        when(weatherFeedSnapshotService.refresh()).thenReturn(new WeatherFeedSnapshot(List.of(riga, vilnius), Instant.now()));
+        when(weatherObservationRepository.upsertAll(anyList())).thenReturn(1);
+
+        cronWeatherImport.scheduledWeatherDataImport();
+        cronWeatherImport.scheduledWeatherDataImport();
+        verify(weatherObservationRepository, times(1)).upsertAll(anyList());
+    }
+}
@@ -0,0 +1,115 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.model.*;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.LocationSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.event.WeatherImportCompletedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.impl.CurrentFeeMatrixServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.impl.FeeCalculationServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.CurrentFee;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrentFeeMatrixServiceTests {
+    @Mock
+    private LocationSnapshotService locationSnapshotService;
+
+    @Mock
+    private WeatherObservationRepository weatherObservationRepository;
+
+    @Spy
+    private FeeCalculationServiceImpl feeCalculationService = new FeeCalculationServiceImpl();
+
+    @InjectMocks
+    private CurrentFeeMatrixServiceImpl service;
+
+    private WeatherObservation observation;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(service, "clock", Clock.systemDefaultZone());
+        Location tallinn = EstonianLocationRulesFactory.makeTallinnLocation();
+        tallinn.setId(1);
+        tallinn.setWeatherStation(WeatherStation.builder().id(1).name("Tallinn-Harku").build());
+
+        observation = new WeatherObservation();
+        observation.setId(1);
+        observation.setStation(tallinn.getWeatherStation());
+        observation.setAirtemperature(1.5f);
+        observation.setWindSpeed(12.f);
+        observation.setPhenomenon(WeatherPhenomenonClassification.RAIN);
+        observation.setTimestamp(LocalDateTime.now());
+
+        when(locationSnapshotService.findAll())
+            .thenReturn(List.of(LocationSnapshot.of(tallinn)));
+        when(weatherObservationRepository.findLatestByStationIds(any()))
+            .thenAnswer(i -> List.of(observation));
+    }
+
+    @Test
+    @DisplayName("CurrentFeeMatrixService.findCurrentFee should return precomputed fees for every vehicle type")
+    public void testFindCurrentFee_KnownLocation_ExpectPrecomputedFees() {
+        assertEquals(new BigDecimal("4.00"), service.findCurrentFee(1, VehicleType.CAR).get().fee());
+        assertEquals(new BigDecimal("4.00"), service.findCurrentFee(1, VehicleType.SCOOTER).get().fee());
+        assertEquals(new BigDecimal("4.00"), service.findCurrentFee(1, VehicleType.BIKE).get().fee());
+        assertTrue(service.findCurrentFee(2, VehicleType.CAR).isEmpty());
+        verify(weatherObservationRepository, times(1)).findLatestByStationIds(any());
+    }
+
+    @Test
+    @DisplayName("CurrentFeeMatrixService should store forbidden outcomes after a weather import")
+    public void testOnWeatherImportCompleted_ForbiddenWeather_ExpectForbiddenOutcome() {
+        service.rebuild();
+        assertFalse(service.findCurrentFee(1, VehicleType.BIKE).get().isForbidden());
+
+        observation.setPhenomenon(WeatherPhenomenonClassification.GLAZE);
+        service.onWeatherImportCompleted(new WeatherImportCompletedEvent(1));
+
+        CurrentFee bike = service.findCurrentFee(1, VehicleType.BIKE).get();
+        assertTrue(bike.isForbidden());
+        assertNull(bike.fee());
+        assertEquals(new BigDecimal("4.00"), service.findCurrentFee(1, VehicleType.CAR).get().fee());
+    }
+
+    @Test
+    @DisplayName("CurrentFeeMatrixService should change the entity tag only when the used weather observation changes")
+    public void testFindCurrentMatrix_NewObservation_ExpectChangedETag() {
+        String eTag = service.findCurrentMatrix().findETag(1).get();
+        service.onWeatherImportCompleted(new WeatherImportCompletedEvent(0));
+        assertEquals(eTag, service.findCurrentMatrix().findETag(1).get());
+
+        observation.setId(2);
+        service.onWeatherImportCompleted(new WeatherImportCompletedEvent(1));
+        assertNotEquals(eTag, service.findCurrentMatrix().findETag(1).get());
+        assertTrue(service.findCurrentMatrix().findETag(2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("CurrentFeeMatrixService should change the entity tag when an import rewrites the values of the used weather observation")
+    public void testFindCurrentMatrix_RewrittenObservation_ExpectChangedETag() {
+        String eTag = service.findCurrentMatrix().findETag(1).get();
+
+        observation.setAirtemperature(-12.f);
+        service.onWeatherImportCompleted(new WeatherImportCompletedEvent(1));
+        assertNotEquals(eTag, service.findCurrentMatrix().findETag(1).get());
+        assertEquals(new BigDecimal("5.00"), service.findCurrentFee(1, VehicleType.BIKE).get().fee());
+    }
+}
@@ -2,16 +2,29 @@ package com.fujitsu.fooddelivery.feeservice.unit;
 
 import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
 import com.fujitsu.fooddelivery.feeservice.model.*;
+import com.fujitsu.fooddelivery.feeservice.service.event.LocationChangedEvent;
 import com.fujitsu.fooddelivery.feeservice.service.impl.FeeCalculationServiceImpl;
 import com.fujitsu.fooddelivery.feeservice.unit.EstonianLocationRulesFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FeeCalculationServiceTests {
+    private static FeeCalculationServiceImpl makeService() {
+        FeeCalculationServiceImpl service = new FeeCalculationServiceImpl();
+        ReflectionTestUtils.setField(service, "clock", Clock.systemDefaultZone());
+        return service;
+    }
+
     @Test
     @DisplayName("Ensure that the example calculation is correct")
     void testCalculation_TartuBike_StatementExampleParameters() {
@@ -24,7 +37,7 @@ public class FeeCalculationServiceTests {
         observation.setWindSpeed(4.7f);
         observation.setPhenomenon(WeatherPhenomenonClassification.SNOW);
 
-        FeeCalculationServiceImpl service = new FeeCalculationServiceImpl();
+        FeeCalculationServiceImpl service = makeService();
         try {
             BigDecimal fee = service.calculate(location, type, observation);
             assertEquals(new BigDecimal("4.00"), fee);
@@ -43,7 +56,7 @@ public class FeeCalculationServiceTests {
         observation.setWindSpeed(15.f);
         observation.setPhenomenon(WeatherPhenomenonClassification.SNOW);
 
-        FeeCalculationServiceImpl service = new FeeCalculationServiceImpl();
+        FeeCalculationServiceImpl service = makeService();
         try {
             final BigDecimal scooterFee = service.calculate(location, VehicleType.SCOOTER, observation);
             assertEquals(new BigDecimal("5.50"), scooterFee);
@@ -64,7 +77,7 @@ public class FeeCalculationServiceTests {
         observation.setWindSpeed(21.2f);
         observation.setPhenomenon(WeatherPhenomenonClassification.CLOUDY);
 
-        FeeCalculationServiceImpl service = new FeeCalculationServiceImpl();
+        FeeCalculationServiceImpl service = makeService();
         assertThrows(ForbiddenVehicleException.class, () -> {
             service.calculate(location, VehicleType.BIKE, observation);
         });
@@ -79,7 +92,7 @@ public class FeeCalculationServiceTests {
         observation.setWindSpeed(5.1f);
         observation.setPhenomenon(WeatherPhenomenonClassification.THUNDER);
 
-        FeeCalculationServiceImpl service = new FeeCalculationServiceImpl();
+        FeeCalculationServiceImpl service = makeService();
         assertThrows(ForbiddenVehicleException.class, () -> {
             service.calculate(location, VehicleType.BIKE, observation);
         });
@@ -87,4 +100,136 @@ public class FeeCalculationServiceTests {
             service.calculate(location, VehicleType.SCOOTER, observation);
         });
     }
+
+    @Test
+    @DisplayName("Ensure that threshold rule boundaries are matched as half-open intervals")
+    void testCalculation_TallinnBike_ThresholdBoundaries() throws ForbiddenVehicleException {
+        Location location = EstonianLocationRulesFactory.makeTallinnLocation();
+        FeeCalculationServiceImpl service = makeService();
+
+        WeatherObservation observation = new WeatherObservation();
+        observation.setAirtemperature(-10.f);
+        observation.setWindSpeed(10.f);
+        observation.setPhenomenon(WeatherPhenomenonClassification.CLEAR);
+        assertEquals(new BigDecimal("4.00"), service.calculate(location, VehicleType.BIKE, observation));
+
+        observation.setAirtemperature(-0.f);
+        observation.setWindSpeed(9.9f);
+        assertEquals(new BigDecimal("3.00"), service.calculate(location, VehicleType.BIKE, observation));
+
+        observation.setWindSpeed(20.f);
+        assertThrows(ForbiddenVehicleException.class, () -> service.calculate(location, VehicleType.BIKE, observation));
+    }
+
+    @Test
+    @DisplayName("Ensure that expired and not yet valid extra fee rules are ignored")
+    void testCalculation_TallinnScooter_InvalidRulesIgnored() throws ForbiddenVehicleException {
+        Location location = EstonianLocationRulesFactory.makeTallinnLocation();
+        List<ExtraFee> extraFees = new ArrayList<>();
+        extraFees.add(new WeatherPhenomenonExtraFee(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), new BigDecimal("2.00"),
+            VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, WeatherPhenomenonClassification.RAIN));
+        extraFees.add(new WeatherPhenomenonExtraFee(LocalDateTime.now().plusDays(1), null, new BigDecimal("3.00"),
+            VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, WeatherPhenomenonClassification.RAIN));
+        extraFees.add(new WeatherPhenomenonExtraFee(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), new BigDecimal("0.25"),
+            VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, WeatherPhenomenonClassification.RAIN));
+        location.setExtraFees(extraFees);
+
+        WeatherObservation observation = new WeatherObservation();
+        observation.setAirtemperature(5.f);
+        observation.setWindSpeed(1.f);
+        observation.setPhenomenon(WeatherPhenomenonClassification.RAIN);
+
+        FeeCalculationServiceImpl service = makeService();
+        assertEquals(new BigDecimal("3.75"), service.calculate(location, VehicleType.SCOOTER, observation));
+    }
+
+    @Test
+    @DisplayName("Ensure that compiled rules of a persisted location are recompiled after LocationChangedEvent")
+    void testCalculation_TallinnScooter_RecompiledAfterLocationChange() throws ForbiddenVehicleException {
+        Location location = EstonianLocationRulesFactory.makeTallinnLocation();
+        location.setId(1);
+        WeatherObservation observation = new WeatherObservation();
+        observation.setAirtemperature(5.f);
+        observation.setWindSpeed(1.f);
+        observation.setPhenomenon(WeatherPhenomenonClassification.RAIN);
+
+        FeeCalculationServiceImpl service = makeService();
+        assertEquals(new BigDecimal("4.00"), service.calculate(location, VehicleType.SCOOTER, observation));
+
+        location.setExtraFees(List.of());
+        service.onLocationChanged(new LocationChangedEvent(1));
+        assertEquals(new BigDecimal("3.50"), service.calculate(location, VehicleType.SCOOTER, observation));
+    }
+
+    @Test
+    @DisplayName("Ensure that compiled rules yield the same results as a linear scan over all extra fee rules")
+    void testCalculation_RandomObservations_MatchesLinearScan() {
+        Location location = EstonianLocationRulesFactory.makeTartuLocation();
+        location.getExtraFees().add(new AirTemperatureExtraFee(new BigDecimal("0.25"), VehicleRule.APPLICABLE, VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, -5.f, 5.f));
+        location.getExtraFees().add(new WindSpeedExtraFee(new BigDecimal("0.10"), VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.NOT_APPLICABLE, 5.f, null));
+        location.getExtraFees().add(new WindSpeedExtraFee(new BigDecimal("0.05"), VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, null, null));
+
+        FeeCalculationServiceImpl service = makeService();
+        WeatherPhenomenonClassification[] phenomena = WeatherPhenomenonClassification.values();
+        Random random = new Random(1337);
+        for (int i = 0; i < 1000; i++) {
+            WeatherObservation observation = new WeatherObservation();
+            observation.setAirtemperature(random.nextInt(61) * 0.5f - 15.f);
+            observation.setWindSpeed(random.nextInt(51) * 0.5f);
+            observation.setPhenomenon(phenomena[random.nextInt(phenomena.length)]);
+
+            for (VehicleType type : VehicleType.values()) {
+                BigDecimal expected = linearScan(location, type, observation);
+                try {
+                    assertEquals(expected, service.calculate(location, type, observation));
+                }
+                catch (ForbiddenVehicleException e) {
+                    assertNull(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Ensure that fixed-point calculation keeps the scale that BigDecimal addition would produce")
+    void testCalculation_MixedScales_SameScaleAsBigDecimalAddition() throws ForbiddenVehicleException {
+        Location location = EstonianLocationRulesFactory.makeTartuLocation();
+        location.setCurrency("JPY");
+        location.getRegionalBaseFee().setScooter(new BigDecimal("3"));
+        location.getRegionalBaseFee().setBike(new BigDecimal("2.5"));
+        location.setExtraFees(new ArrayList<>(List.of(
+            new WeatherPhenomenonExtraFee(new BigDecimal("0.125"), VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.NOT_APPLICABLE, WeatherPhenomenonClassification.RAIN),
+            new AirTemperatureExtraFee(new BigDecimal("1.0"), VehicleRule.NOT_APPLICABLE, VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, null, 0.f)
+        )));
+
+        WeatherObservation observation = new WeatherObservation();
+        observation.setAirtemperature(-1.f);
+        observation.setWindSpeed(1.f);
+        observation.setPhenomenon(WeatherPhenomenonClassification.RAIN);
+
+        FeeCalculationServiceImpl service = makeService();
+        assertEquals(new BigDecimal("3.50"), service.calculate(location, VehicleType.CAR, observation));
+        assertEquals(new BigDecimal("3.125"), service.calculate(location, VehicleType.SCOOTER, observation));
+        assertEquals(new BigDecimal("3.5"), service.calculate(location, VehicleType.BIKE, observation));
+
+        observation.setPhenomenon(WeatherPhenomenonClassification.CLEAR);
+        assertEquals(new BigDecimal("3"), service.calculate(location, VehicleType.SCOOTER, observation));
+    }
+
+    private static BigDecimal linearScan(Location location, VehicleType type, WeatherObservation observation) {
+        BigDecimal fee = switch (type) {
+            case CAR -> location.getRegionalBaseFee().getCar();
+            case SCOOTER -> location.getRegionalBaseFee().getScooter();
+            case BIKE -> location.getRegionalBaseFee().getBike();
+        };
+        for (ExtraFee extraFee : location.getExtraFees()) {
+            if (extraFee.isValid() && extraFee.matchesObservation(observation)) {
+                if (extraFee.checkVehicleApplicability(type) == VehicleRule.FORBIDDEN)
+                    return null;
+                if (extraFee.checkVehicleApplicability(type) == VehicleRule.APPLICABLE)
+                    fee = fee.add(extraFee.getExtraFee());
+            }
+        }
+        return fee;
+    }
 }
@@ -0,0 +1,161 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.model.*;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepositoryCustom.AsOfLookup;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteRequest;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeQuoteResult;
+import com.fujitsu.fooddelivery.feeservice.service.LocationSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.impl.FeeCalculationServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.impl.FeeQuoteServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FeeQuoteServiceTests {
+    @Mock
+    private LocationSnapshotService locationSnapshotService;
+
+    @Mock
+    private WeatherObservationRepository weatherObservationRepository;
+
+    @Spy
+    private FeeCalculationServiceImpl feeCalculationService = new FeeCalculationServiceImpl();
+
+    @InjectMocks
+    private FeeQuoteServiceImpl service;
+
+    private WeatherObservation observation;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(service, "clock", Clock.systemDefaultZone());
+        Location tallinn = EstonianLocationRulesFactory.makeTallinnLocation();
+        tallinn.setId(1);
+        tallinn.setWeatherStation(WeatherStation.builder().id(1).name("Tallinn-Harku").build());
+
+        observation = new WeatherObservation();
+        observation.setId(1);
+        observation.setStation(tallinn.getWeatherStation());
+        observation.setAirtemperature(-2.1f);
+        observation.setWindSpeed(4.7f);
+        observation.setPhenomenon(WeatherPhenomenonClassification.SNOW);
+        observation.setTimestamp(LocalDateTime.now());
+
+        when(locationSnapshotService.findByCity("Tallinn"))
+            .thenReturn(Optional.of(LocationSnapshot.of(tallinn)));
+    }
+
+    // answers every as-of lookup with the same observation
+    @SuppressWarnings("unchecked")
+    private void stubAsOf() {
+        when(weatherObservationRepository.findAsOf(anyCollection())).thenAnswer(invocation ->
+            ((Collection<AsOfLookup>) invocation.getArgument(0)).stream()
+                .collect(Collectors.toMap(Function.identity(), lookup -> observation)));
+    }
+
+    @Test
+    @DisplayName("FeeQuoteService.quoteAll should return per-request results in request order")
+    public void testQuoteAll_MixedRequests_ExpectResultsInOrder() {
+        when(locationSnapshotService.findByCity("Valga"))
+            .thenReturn(Optional.empty());
+        when(weatherObservationRepository.findLatestByStationIds(any()))
+            .thenReturn(List.of(observation));
+
+        List<FeeQuoteRequest> requests = new ArrayList<>();
+        requests.add(new FeeQuoteRequest("Tallinn", "bike", null));
+        requests.add(new FeeQuoteRequest("Valga", "bike", null));
+        requests.add(new FeeQuoteRequest("Tallinn", "rocket", null));
+        requests.add(new FeeQuoteRequest("Tallinn", "CAR", null));
+
+        List<FeeQuoteResult> results = service.quoteAll(requests);
+        assertEquals(4, results.size());
+        assertEquals(new BigDecimal("4.50"), results.get(0).result().fee());
+        assertNull(results.get(0).error());
+        assertEquals("Invalid city name 'Valga'", results.get(1).error().getErrorMessage());
+        assertEquals("Invalid vehicle argument 'rocket'", results.get(2).error().getErrorMessage());
+        assertEquals(new BigDecimal("4.00"), results.get(3).result().fee());
+        assertEquals("EUR", results.get(3).result().currency());
+    }
+
+    @Test
+    @DisplayName("FeeQuoteService.quoteAll should resolve a mixed batch with one latest and one as-of observation query")
+    public void testQuoteAll_RepeatedRequests_ExpectDeduplicatedLookups() {
+        when(weatherObservationRepository.findLatestByStationIds(any()))
+            .thenReturn(List.of(observation));
+        stubAsOf();
+
+        List<FeeQuoteRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            requests.add(new FeeQuoteRequest("Tallinn", "scooter", null));
+            requests.add(new FeeQuoteRequest("Tallinn", "bike", 1710000000L + i % 5));
+        }
+
+        List<FeeQuoteResult> results = service.quoteAll(requests);
+        assertEquals(100, results.size());
+        assertTrue(results.stream().allMatch(result -> result.error() == null));
+        verify(locationSnapshotService, times(1)).findByCity("Tallinn");
+        verify(weatherObservationRepository, times(1)).findLatestByStationIds(any());
+        verify(weatherObservationRepository, times(1)).findAsOf(argThat(lookups -> lookups.size() == 5));
+        verify(weatherObservationRepository, never()).findFirstByStationAndTimestampLessThanEqualOrderByTimestampDesc(any(), any());
+    }
+
+    @Test
+    @DisplayName("FeeQuoteService.quoteAll should evaluate rule validity of historical requests in the zone of the clock")
+    public void testQuoteAll_NonUtcClock_ExpectRulesValidOnlyAfterValidFrom() {
+        // 18:00 in Tallinn is 16:00 UTC
+        LocalDateTime validFrom = LocalDateTime.of(2024, 3, 9, 18, 0);
+        Location tallinn = EstonianLocationRulesFactory.makeTallinnLocation();
+        tallinn.setId(1);
+        tallinn.setWeatherStation(observation.getStation());
+        tallinn.getExtraFees().forEach(extraFee -> extraFee.setValidFrom(validFrom));
+        when(locationSnapshotService.findByCity("Tallinn"))
+            .thenReturn(Optional.of(LocationSnapshot.of(tallinn)));
+        stubAsOf();
+        ReflectionTestUtils.setField(service, "clock", Clock.fixed(Instant.parse("2024-03-10T00:00:00Z"), ZoneId.of("Europe/Tallinn")));
+
+        List<FeeQuoteResult> results = service.quoteAll(List.of(
+            new FeeQuoteRequest("Tallinn", "bike", Instant.parse("2024-03-09T15:59:59Z").getEpochSecond()),
+            new FeeQuoteRequest("Tallinn", "bike", Instant.parse("2024-03-09T16:00:00Z").getEpochSecond())
+        ));
+        assertEquals(new BigDecimal("3.00"), results.get(0).result().fee());
+        assertEquals(new BigDecimal("4.50"), results.get(1).result().fee());
+        verify(weatherObservationRepository).findAsOf(argThat(lookups -> lookups.contains(new AsOfLookup(1, validFrom))));
+    }
+
+    @Test
+    @DisplayName("FeeQuoteService.quoteAll should fail only the requests whose unixTimestamp is out of range")
+    public void testQuoteAll_OutOfRangeTimestamp_ExpectItemFailure() {
+        stubAsOf();
+
+        List<FeeQuoteResult> results = service.quoteAll(List.of(
+            new FeeQuoteRequest("Tallinn", "car", Long.MAX_VALUE),
+            new FeeQuoteRequest("Tallinn", "car", 1710000000L)
+        ));
+        assertEquals("Invalid unixTimestamp argument '" + Long.MAX_VALUE + "'", results.get(0).error().getErrorMessage());
+        assertNull(results.get(0).result());
+        assertEquals(new BigDecimal("4.00"), results.get(1).result().fee());
+    }
+}
@@ -0,0 +1,86 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.exception.ForbiddenVehicleException;
+import com.fujitsu.fooddelivery.feeservice.model.*;
+import com.fujitsu.fooddelivery.feeservice.service.rules.FeeRuleTimeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeeRuleTimelineTests {
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private FeeRuleTimeline timeline;
+    private WeatherObservation observation;
+
+    @BeforeEach
+    public void setup() {
+        Location location = EstonianLocationRulesFactory.makeTallinnLocation();
+        List<ExtraFee> extraFees = new ArrayList<>();
+        extraFees.add(new WeatherPhenomenonExtraFee(T0, T0.plusDays(10), new BigDecimal("2.00"),
+            VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, WeatherPhenomenonClassification.RAIN));
+        extraFees.add(new WeatherPhenomenonExtraFee(T0.plusDays(5), null, new BigDecimal("0.50"),
+            VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, WeatherPhenomenonClassification.RAIN));
+        location.setExtraFees(extraFees);
+        timeline = FeeRuleTimeline.build(location);
+
+        observation = new WeatherObservation();
+        observation.setAirtemperature(5.f);
+        observation.setWindSpeed(1.f);
+        observation.setPhenomenon(WeatherPhenomenonClassification.RAIN);
+    }
+
+    @Test
+    @DisplayName("FeeRuleTimeline.at should resolve the rules that were valid at the given point in time")
+    public void testAt_HistoricalInstants_ExpectRulesValidAtInstant() throws ForbiddenVehicleException {
+        assertEquals(new BigDecimal("3.50"), timeline.at(T0.minusDays(1)).calculate(VehicleType.SCOOTER, observation));
+        assertEquals(new BigDecimal("3.50"), timeline.at(T0).calculate(VehicleType.SCOOTER, observation));
+        assertEquals(new BigDecimal("5.50"), timeline.at(T0.plusDays(1)).calculate(VehicleType.SCOOTER, observation));
+        assertEquals(new BigDecimal("5.50"), timeline.at(T0.plusDays(5)).calculate(VehicleType.SCOOTER, observation));
+        assertEquals(new BigDecimal("6.00"), timeline.at(T0.plusDays(7)).calculate(VehicleType.SCOOTER, observation));
+        assertEquals(new BigDecimal("4.00"), timeline.at(T0.plusDays(10)).calculate(VehicleType.SCOOTER, observation));
+        assertEquals(new BigDecimal("4.00"), timeline.at(T0.plusYears(1)).calculate(VehicleType.SCOOTER, observation));
+    }
+
+    @Test
+    @DisplayName("FeeRuleTimeline.nextChangeAfter should return the next point in time where rule validity may change")
+    public void testNextChangeAfter_VariousInstants_ExpectNextChangePoint() {
+        assertEquals(T0, timeline.nextChangeAfter(T0.minusDays(1)));
+        assertEquals(T0.plusNanos(1), timeline.nextChangeAfter(T0));
+        assertEquals(T0.plusDays(5), timeline.nextChangeAfter(T0.plusDays(1)));
+        assertEquals(T0.plusDays(10), timeline.nextChangeAfter(T0.plusDays(7)));
+        assertNull(timeline.nextChangeAfter(T0.plusDays(11)));
+    }
+
+    @Test
+    @DisplayName("FeeRuleTimeline.at should add up amounts beyond long minor units exactly")
+    public void testAt_AmountsBeyondLongMinorUnits_ExpectExactSum() throws ForbiddenVehicleException {
+        Location location = EstonianLocationRulesFactory.makeTallinnLocation();
+        location.getRegionalBaseFee().setScooter(new BigDecimal("100000000000000000.00"));
+        location.setExtraFees(new ArrayList<>(List.of(
+            new WeatherPhenomenonExtraFee(T0, T0.plusDays(10), new BigDecimal("2.00"),
+                VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, WeatherPhenomenonClassification.RAIN),
+            new WeatherPhenomenonExtraFee(T0.plusDays(5), null, new BigDecimal("0.50"),
+                VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, WeatherPhenomenonClassification.RAIN))));
+        assertEquals(new BigDecimal("100000000000000002.50"),
+            FeeRuleTimeline.build(location).at(T0.plusDays(7)).calculate(VehicleType.SCOOTER, observation));
+    }
+
+    @Test
+    @DisplayName("FeeRuleTimeline.at should add up amounts exactly when only their sum exceeds long minor units")
+    public void testAt_SumBeyondLongMinorUnits_ExpectExactSum() throws ForbiddenVehicleException {
+        Location location = EstonianLocationRulesFactory.makeTallinnLocation();
+        location.getRegionalBaseFee().setScooter(new BigDecimal("50000000000000000.00"));
+        location.setExtraFees(new ArrayList<>(List.of(new WeatherPhenomenonExtraFee(T0, null, new BigDecimal("50000000000000000.00"),
+            VehicleRule.NOT_APPLICABLE, VehicleRule.APPLICABLE, VehicleRule.APPLICABLE, WeatherPhenomenonClassification.RAIN))));
+        assertEquals(new BigDecimal("100000000000000000.00"),
+            FeeRuleTimeline.build(location).at(T0.plusDays(1)).calculate(VehicleType.SCOOTER, observation));
+    }
+}
@@ -0,0 +1,150 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.model.*;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.representation.FeeSeriesPoint;
+import com.fujitsu.fooddelivery.feeservice.service.impl.FeeCalculationServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.impl.FeeSeriesServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FeeSeriesServiceTests {
+    @Mock
+    private WeatherObservationRepository weatherObservationRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private FeeCalculationServiceImpl feeCalculationService = new FeeCalculationServiceImpl();
+
+    @InjectMocks
+    private FeeSeriesServiceImpl service;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(service, "clock", Clock.systemDefaultZone());
+    }
+
+    private WeatherObservation makeObservation(int id, LocalDateTime timestamp, WeatherPhenomenonClassification phenomenon) {
+        WeatherObservation observation = new WeatherObservation();
+        observation.setId(id);
+        observation.setAirtemperature(1.5f);
+        observation.setWindSpeed(12.f);
+        observation.setPhenomenon(phenomenon);
+        observation.setTimestamp(timestamp);
+        return observation;
+    }
+
+    @Test
+    @DisplayName("FeeSeriesService.streamSeries should emit a point only when the fee of a vehicle type changes")
+    public void testStreamSeries_ChangingWeather_ExpectPointsOnChangeOnly() {
+        Location tallinn = EstonianLocationRulesFactory.makeTallinnLocation();
+        tallinn.setId(1);
+        tallinn.setWeatherStation(WeatherStation.builder().id(1).name("Tallinn-Harku").build());
+        LocationSnapshot location = LocationSnapshot.of(tallinn);
+
+        LocalDateTime from = LocalDateTime.now().plusMinutes(1);
+        LocalDateTime to = from.plusHours(1);
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(weatherObservationRepository.findFirstByStationAndTimestampLessThanEqualOrderByTimestampDesc(any(), any()))
+            .thenReturn(Optional.of(makeObservation(1, from.minusMinutes(5), WeatherPhenomenonClassification.RAIN)));
+        when(weatherObservationRepository.streamByStationBetween(any(), any(), any()))
+            .thenReturn(Stream.of(
+                makeObservation(2, from.plusMinutes(10), WeatherPhenomenonClassification.RAIN),
+                makeObservation(3, from.plusMinutes(20), WeatherPhenomenonClassification.GLAZE)
+            ));
+
+        List<FeeSeriesPoint> points = new ArrayList<>();
+        long count = service.streamSeries(location, List.of(VehicleType.CAR, VehicleType.BIKE), from, to, points::add);
+
+        assertEquals(3, count);
+        assertEquals(3, points.size());
+        assertEquals("car", points.get(0).vehicle());
+        assertEquals(new BigDecimal("4.00"), points.get(0).result().fee());
+        assertEquals("bike", points.get(1).vehicle());
+        assertEquals(new BigDecimal("4.00"), points.get(1).result().fee());
+        assertEquals("bike", points.get(2).vehicle());
+        assertEquals(3, points.get(2).observationId());
+        assertNull(points.get(2).result());
+        assertNotNull(points.get(2).error());
+        verify(entityManager, times(2)).detach(any());
+    }
+
+    @Test
+    @DisplayName("FeeSeriesService.streamSeries should emit Unix timestamps of local times in the zone of the clock")
+    public void testStreamSeries_NonUtcClock_ExpectTimestampsInClockZone() {
+        ReflectionTestUtils.setField(service, "clock", Clock.fixed(Instant.parse("2024-03-10T00:00:00Z"), ZoneId.of("Europe/Tallinn")));
+        Location tallinn = EstonianLocationRulesFactory.makeTallinnLocation();
+        tallinn.setId(1);
+        tallinn.setWeatherStation(WeatherStation.builder().id(1).name("Tallinn-Harku").build());
+        tallinn.getExtraFees().forEach(extraFee -> extraFee.setValidFrom(LocalDateTime.of(2024, 1, 1, 0, 0)));
+
+        LocalDateTime from = LocalDateTime.of(2024, 3, 9, 18, 0);
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(weatherObservationRepository.findFirstByStationAndTimestampLessThanEqualOrderByTimestampDesc(any(), any()))
+            .thenReturn(Optional.empty());
+        when(weatherObservationRepository.streamByStationBetween(any(), any(), any()))
+            .thenReturn(Stream.of(makeObservation(2, from.plusMinutes(10), WeatherPhenomenonClassification.GLAZE)));
+
+        List<FeeSeriesPoint> points = new ArrayList<>();
+        service.streamSeries(LocationSnapshot.of(tallinn), List.of(VehicleType.BIKE), from, from.plusHours(1), points::add);
+
+        assertEquals(2, points.size());
+        assertEquals(Instant.parse("2024-03-09T16:00:00Z").getEpochSecond(), points.get(0).unixTimestamp());
+        assertEquals(Instant.parse("2024-03-09T16:10:00Z").getEpochSecond(), points.get(1).unixTimestamp());
+    }
+
+    @Test
+    @DisplayName("FeeSeriesService.streamSeries should abort streaming after the stream timeout")
+    public void testStreamSeries_TimeoutElapsed_ExpectQueryTimeoutException() {
+        ReflectionTestUtils.setField(service, "streamTimeout", Duration.ZERO);
+        Location tallinn = EstonianLocationRulesFactory.makeTallinnLocation();
+        tallinn.setId(1);
+        tallinn.setWeatherStation(WeatherStation.builder().id(1).name("Tallinn-Harku").build());
+
+        LocalDateTime from = LocalDateTime.now();
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(weatherObservationRepository.findFirstByStationAndTimestampLessThanEqualOrderByTimestampDesc(any(), any()))
+            .thenReturn(Optional.empty());
+        when(weatherObservationRepository.streamByStationBetween(any(), any(), any()))
+            .thenReturn(Stream.of(makeObservation(2, from.plusMinutes(10), WeatherPhenomenonClassification.RAIN)));
+
+        assertThrows(QueryTimeoutException.class,
+            () -> service.streamSeries(LocationSnapshot.of(tallinn), List.of(VehicleType.BIKE), from, from.plusHours(1), point -> {}));
+    }
+}
@@ -322,4 +322,36 @@ public class IlmateenistusApiReaderTests {
             reader.findTheMostRecentObservationByStation(station);
         });
     }
+
+    @Test
+    @DisplayName("Ensure that stations with quotes in their names can be looked up and the first duplicate station wins")
+    void testFindTheMostRecentObservationByStation_QuotedAndDuplicateNames() throws DocumentException, WeatherApiException {
+        final String testXml = """
+            <observations timestamp="1337000">
+                <station>
+                    <name>Kuressaare 'sadam'</name>
+                    <wmocode>1234</wmocode>
+                    <phenomenon/>
+                    <airtemperature>-1.5</airtemperature>
+                    <windspeed>3.1</windspeed>
+                </station>
+                <station>
+                    <name>Kuressaare 'sadam'</name>
+                    <wmocode>1337</wmocode>
+                    <phenomenon/>
+                    <airtemperature>20.0</airtemperature>
+                    <windspeed>1.0</windspeed>
+                </station>
+            </observations>
+            """;
+
+        WeatherStation station = new WeatherStation();
+        station.setName("Kuressaare 'sadam'");
+
+        Document document = DocumentHelper.parseText(testXml);
+        WeatherApiReader reader = new IlmateenistusApiReader(document);
+        assertEquals(-1.5f, reader.findTheMostRecentObservationByStation(station).getAirtemperature());
+        assertEquals(1234, reader.findWeatherStationByName("Kuressaare 'sadam'").getWmoCode());
+        assertEquals("Kuressaare 'sadam'", reader.findWeatherStationByWmoCode(1337).getName());
+    }
 }
@@ -0,0 +1,84 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.exception.WeatherApiException;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherPhenomenonClassification;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusApiReader;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusFeedParser;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IlmateenistusFeedParserTests {
+    private static IlmateenistusFeedParser.Feed parse(String xml) throws XMLStreamException {
+        return IlmateenistusFeedParser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Ensure that the streamed feed gives the same observations as the document based reader")
+    void testParse_StationEntries_ExpectObservations() throws XMLStreamException, WeatherApiException {
+        final String testXml = """
+            <observations timestamp="1337000">
+                <station>
+                    <name>Tartu-Tõravere</name>
+                    <wmocode>26242</wmocode>
+                    <longitude>26.46130</longitude>
+                    <latitude>58.264167</latitude>
+                    <phenomenon>Light snow shower</phenomenon>
+                    <airtemperature>-2.1</airtemperature>
+                    <windspeed>4.7</windspeed>
+                </station>
+                <station>
+                    <name>Narva</name>
+                    <wmocode>1337</wmocode>
+                    <longitude/>
+                    <latitude/>
+                </station>
+            </observations>
+            """;
+
+        IlmateenistusFeedParser.Feed feed = parse(testXml);
+        assertEquals("1337000", feed.timestamp());
+        assertEquals(2, feed.stations().size());
+        assertEquals("", feed.stations().get(1).longitude());
+        assertNull(feed.stations().get(1).airTemperature());
+
+        WeatherStation station = new WeatherStation();
+        station.setName("Tartu-Tõravere");
+        WeatherApiReader reader = new IlmateenistusApiReader(feed);
+        WeatherObservation observation = reader.findTheMostRecentObservationByStation(station);
+        assertEquals(-2.1f, observation.getAirtemperature());
+        assertEquals(4.7f, observation.getWindSpeed());
+        assertEquals(WeatherPhenomenonClassification.SNOW, observation.getPhenomenon());
+        assertEquals("Narva", reader.findWeatherStationByWmoCode(1337).getName());
+        assertEquals(2, reader.findAllStations().size());
+    }
+
+    @Test
+    @DisplayName("Ensure that a malformed document and external entities are rejected")
+    void testParse_MalformedDocument_ExpectXMLStreamException() {
+        assertThrows(XMLStreamException.class, () -> parse("<observations timestamp=\"1337000\"><station>"));
+        assertThrows(XMLStreamException.class, () -> parse("""
+            <?xml version="1.0"?>
+            <!DOCTYPE observations [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+            <observations><station><name>&secret;</name></station></observations>
+            """));
+    }
+
+    @Test
+    @DisplayName("Ensure that a feed with an already known timestamp is not parsed past the root tag")
+    void testParse_KnownTimestamp_ExpectNull() throws XMLStreamException {
+        // the unterminated station tag would fail the parse if it was read
+        final String testXml = "<observations timestamp=\"1337000\"><station><name>Narva</name>";
+        assertNull(IlmateenistusFeedParser.parse(new ByteArrayInputStream(testXml.getBytes(StandardCharsets.UTF_8)), "1337000"));
+        assertThrows(XMLStreamException.class, () -> IlmateenistusFeedParser.parse(
+            new ByteArrayInputStream(testXml.getBytes(StandardCharsets.UTF_8)), "1336000"));
+    }
+}
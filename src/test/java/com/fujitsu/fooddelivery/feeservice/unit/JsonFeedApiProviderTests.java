@@ -0,0 +1,85 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.exception.WeatherApiException;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherPhenomenonClassification;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.WeatherFeedSnapshot;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.IlmateenistusApiProvider;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.JsonFeedApiProvider;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonFeedApiProviderTests {
+    private static final String JSON_FEED = """
+        {
+            "timestamp": 1710000000,
+            "stations": [
+                {"name": "Riga", "wmoCode": 26422, "longitude": 24.12, "latitude": 56.95,
+                 "airTemperature": -1.5, "windSpeed": 3.2, "phenomenon": "Light snow shower"},
+                {"name": "Tallinn-Harku", "wmoCode": 26038, "airTemperature": 20.0, "windSpeed": 1.0, "phenomenon": "Clear"}
+            ]
+        }
+        """;
+
+    private static WeatherApiReader readJson(String json, String knownFeedVersion) throws IOException {
+        return new JsonFeedApiProvider().read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), knownFeedVersion);
+    }
+
+    @Test
+    @DisplayName("Ensure that JSON feed stations and observations are read")
+    void testRead_JsonFeed_ExpectObservations() throws IOException, WeatherApiException {
+        WeatherApiReader reader = readJson(JSON_FEED, null);
+        assertEquals("1710000000", reader.getFeedVersion());
+        assertEquals(JsonFeedApiProvider.NAME, reader.getProviderName());
+        assertEquals("Riga", reader.findWeatherStationByWmoCode(26422).getName());
+
+        WeatherObservation observation = reader.findTheMostRecentObservationByStation(reader.findWeatherStationByName("Riga"));
+        assertEquals(-1.5f, observation.getAirtemperature());
+        assertEquals(3.2f, observation.getWindSpeed());
+        assertEquals(WeatherPhenomenonClassification.SNOW, observation.getPhenomenon());
+
+        assertNull(readJson(JSON_FEED, "1710000000"));
+        assertThrows(IOException.class, () -> readJson("{\"stations\": [", null));
+    }
+
+    @Test
+    @DisplayName("Ensure that stations are looked up only from their owning providers in priority order")
+    void testFindTheMostRecentObservationByStation_SeveralProviders_ExpectPriorityOrder() throws IOException, WeatherApiException {
+        final String xml = """
+            <observations timestamp="1710000000">
+                <station>
+                    <name>Tallinn-Harku</name>
+                    <wmocode>26038</wmocode>
+                    <phenomenon>Light rain</phenomenon>
+                    <airtemperature>4.0</airtemperature>
+                    <windspeed>5.0</windspeed>
+                </station>
+            </observations>
+            """;
+        WeatherApiReader ilmateenistus = new IlmateenistusApiProvider().read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), null);
+        WeatherFeedSnapshot feed = new WeatherFeedSnapshot(List.of(ilmateenistus, readJson(JSON_FEED, null)), Instant.now());
+
+        WeatherStation tallinn = new WeatherStation();
+        tallinn.setName("Tallinn-Harku");
+        assertEquals(WeatherPhenomenonClassification.RAIN, feed.findTheMostRecentObservationByStation(tallinn).getPhenomenon());
+
+        WeatherStation riga = new WeatherStation();
+        riga.setName("Riga");
+        assertEquals(-1.5f, feed.findTheMostRecentObservationByStation(riga).getAirtemperature());
+        assertEquals("Riga", feed.findWeatherStationByWmoCode(26422).getName());
+
+        WeatherStation narva = new WeatherStation();
+        narva.setName("Narva");
+        assertThrows(WeatherApiException.class, () -> feed.findTheMostRecentObservationByStation(narva));
+    }
+}
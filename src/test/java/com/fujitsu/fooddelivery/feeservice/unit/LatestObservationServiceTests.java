@@ -0,0 +1,125 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherPhenomenonClassification;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.impl.LatestObservationServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LatestObservationServiceTests {
+    @Mock
+    private WeatherObservationRepository weatherObservationRepository;
+
+    @Mock
+    private WeatherStationRepository weatherStationRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private LatestObservationServiceImpl service;
+
+    private final WeatherStation station = WeatherStation.builder().id(1).name("Tallinn-Harku").build();
+
+    private WeatherObservation makeObservation(int id, LocalDateTime timestamp, WeatherPhenomenonClassification phenomenon) {
+        WeatherObservation observation = new WeatherObservation();
+        observation.setId(id);
+        observation.setAirtemperature(1.5f);
+        observation.setWindSpeed(12.f);
+        observation.setPhenomenon(phenomenon);
+        observation.setTimestamp(timestamp);
+        observation.setStation(station);
+        return observation;
+    }
+
+    @Test
+    @DisplayName("LatestObservationService.findLatest should query the repository only for stations it does not know yet")
+    public void testFindLatest_RepeatedLookups_ExpectSingleQuery() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(weatherObservationRepository.findLatestByStationIds(List.of(1)))
+            .thenReturn(List.of(makeObservation(1, LocalDateTime.now(), WeatherPhenomenonClassification.RAIN)));
+
+        Optional<WeatherObservation> first = service.findLatest(station);
+        Optional<WeatherObservation> second = service.findLatest(station);
+
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        assertEquals(1, second.get().getId());
+        assertEquals(WeatherPhenomenonClassification.RAIN, second.get().getPhenomenon());
+        verify(weatherObservationRepository, times(1)).findLatestByStationIds(any());
+    }
+
+    @Test
+    @DisplayName("LatestObservationService.update should not replace a more recent observation with an older one")
+    public void testUpdate_OlderObservation_ExpectNewerKept() {
+        LocalDateTime now = LocalDateTime.now();
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(weatherObservationRepository.findLatestByStationIds(List.of(1)))
+            .thenReturn(List.of(makeObservation(2, now, WeatherPhenomenonClassification.GLAZE)))
+            .thenReturn(List.of(makeObservation(1, now.minusHours(1), WeatherPhenomenonClassification.RAIN)));
+
+        service.update(List.of(1));
+        service.update(List.of(1));
+
+        Optional<WeatherObservation> latest = service.findLatest(station);
+        assertTrue(latest.isPresent());
+        assertEquals(2, latest.get().getId());
+        assertEquals(WeatherPhenomenonClassification.GLAZE, latest.get().getPhenomenon());
+    }
+
+    @Test
+    @DisplayName("LatestObservationService.findLatest should remember stations without observations until they are updated")
+    public void testFindLatest_StationWithoutObservations_ExpectSingleQueryUntilUpdated() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(weatherObservationRepository.findLatestByStationIds(List.of(1)))
+            .thenReturn(List.of())
+            .thenReturn(List.of(makeObservation(1, LocalDateTime.now(), WeatherPhenomenonClassification.SNOW)));
+
+        assertTrue(service.findLatest(station).isEmpty());
+        assertTrue(service.findLatest(station).isEmpty());
+        verify(weatherObservationRepository, times(1)).findLatestByStationIds(any());
+
+        service.update(List.of(1));
+        Optional<WeatherObservation> latest = service.findLatest(station);
+        assertTrue(latest.isPresent());
+        assertEquals(WeatherPhenomenonClassification.SNOW, latest.get().getPhenomenon());
+        verify(weatherObservationRepository, times(2)).findLatestByStationIds(any());
+    }
+
+    @Test
+    @DisplayName("LatestObservationService.reload should look up stations that were remembered without observations again")
+    public void testReload_StationWithoutObservations_ExpectObservationFound() {
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(weatherStationRepository.findAll()).thenReturn(List.of(station));
+        when(weatherObservationRepository.findLatestByStationIds(List.of(1)))
+            .thenReturn(List.of())
+            .thenReturn(List.of(makeObservation(1, LocalDateTime.now(), WeatherPhenomenonClassification.CLEAR)));
+
+        assertTrue(service.findLatest(station).isEmpty());
+        service.reload();
+        assertTrue(service.findLatest(station).isPresent());
+        verify(weatherObservationRepository, times(2)).findLatestByStationIds(any());
+    }
+}
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -34,6 +35,9 @@ public class LocationCrudServiceTests {
     @Mock
     private WeatherStationQueryService weatherStationQueryService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private LocationCrudServiceImpl service;
 
@@ -118,7 +122,7 @@ public class LocationCrudServiceTests {
     @Test
     @DisplayName("LocationCrudService.getAllLocations should return a list of valid Location objects")
     public void testGetAllLocations() {
-        given(locationRepository.findAll())
+        given(locationRepository.findAllWithRules())
             .willReturn(locations);
 
         assertEquals(locations, service.getAllLocations());
@@ -127,9 +131,9 @@ public class LocationCrudServiceTests {
     @Test
     @DisplayName("LocationCrudService.getLocationById should return a valid Location object when provided ID is correct")
     public void testGetLocationById_ValidId_ExpectLocation() {
-        given(locationRepository.findById(locations.get(0).getId()))
+        given(locationRepository.findWithRulesById(locations.get(0).getId()))
             .willReturn(Optional.of(locations.get(0)));
-        given(locationRepository.findById(locations.get(1).getId()))
+        given(locationRepository.findWithRulesById(locations.get(1).getId()))
             .willReturn(Optional.of(locations.get(1)));
 
         assertEquals(locations.get(0), service.getLocationById(locations.get(0).getId()));
@@ -139,7 +143,7 @@ public class LocationCrudServiceTests {
     @Test
     @DisplayName("LocationCrudService.getLocationById should return null with invalid provided ID")
     public void testGetLocationById_InvalidId_ExpectNull() {
-        when(locationRepository.findById(anyInt()))
+        when(locationRepository.findWithRulesById(anyInt()))
             .thenReturn(Optional.empty());
 
         assertNull(service.getLocationById(1001));
@@ -0,0 +1,94 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.model.Location;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.LocationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.event.LocationChangedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.impl.LocationSnapshotServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LocationSnapshotServiceTests {
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private LocationSnapshotServiceImpl service;
+
+    private List<Location> locations;
+
+    @BeforeEach
+    public void setup() {
+        locations = new ArrayList<>();
+        locations.add(EstonianLocationRulesFactory.makeTallinnLocation());
+        locations.get(0).setId(1);
+        locations.get(0).setWeatherStation(WeatherStation.builder().id(1).name("Tallinn-Harku").wmoCode(26038).build());
+        locations.add(EstonianLocationRulesFactory.makeTartuLocation());
+        locations.get(1).setId(2);
+        locations.get(1).setWeatherStation(WeatherStation.builder().id(2).name("Tartu-Tõravere").wmoCode(26242).build());
+
+        when(transactionTemplate.execute(any()))
+            .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(locationRepository.findAllWithRules())
+            .thenReturn(locations);
+    }
+
+    @Test
+    @DisplayName("LocationSnapshotService.findByCity should find locations regardless of letter case and surrounding whitespace")
+    public void testFindByCity_NormalizedCityName_ExpectSnapshot() {
+        assertTrue(service.findByCity("Tallinn").isPresent());
+        assertEquals(2, service.findByCity(" tartu ").get().getId());
+        assertEquals("Tartu-Tõravere", service.findByCity("TARTU").get().getWeatherStation().getName());
+    }
+
+    @Test
+    @DisplayName("LocationSnapshotService.findByCity should answer unknown cities without querying the repository again")
+    public void testFindByCity_UnknownCity_ExpectEmptyWithoutRepositoryQuery() {
+        assertTrue(service.findByCity("Valga").isEmpty());
+        assertTrue(service.findByCity("Valga").isEmpty());
+        assertTrue(service.findByCity("Tallinn").isPresent());
+
+        verify(locationRepository, times(1)).findAllWithRules();
+        verify(locationRepository, never()).findByCity(any());
+    }
+
+    @Test
+    @DisplayName("LocationSnapshotService should patch the snapshot when a location is renamed or deleted")
+    public void testOnLocationChanged_RenameAndDelete_ExpectPatchedSnapshot() {
+        assertTrue(service.findByCity("Tallinn").isPresent());
+
+        Location renamed = EstonianLocationRulesFactory.makeTallinnLocation();
+        renamed.setId(1);
+        renamed.setCity("Maardu");
+        renamed.setWeatherStation(locations.get(0).getWeatherStation());
+        when(locationRepository.findWithRulesById(1)).thenReturn(Optional.of(renamed));
+        service.onLocationChanged(new LocationChangedEvent(1));
+
+        assertTrue(service.findByCity("Tallinn").isEmpty());
+        assertEquals(1, service.findByCity("Maardu").get().getId());
+
+        when(locationRepository.findWithRulesById(2)).thenReturn(Optional.empty());
+        service.onLocationChanged(new LocationChangedEvent(2));
+        assertTrue(service.findByCity("Tartu").isEmpty());
+        assertEquals(1, service.findAll().size());
+    }
+}
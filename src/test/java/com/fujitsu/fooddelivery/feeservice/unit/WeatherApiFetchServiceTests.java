@@ -0,0 +1,108 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProvider;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProviderRegistry;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiReaderFactory;
+import com.fujitsu.fooddelivery.feeservice.service.impl.WeatherApiFetchServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherApiFetchServiceTests {
+    @Mock
+    private WeatherApiReaderFactory weatherApiReaderFactory;
+
+    @Mock
+    private WeatherApiProviderRegistry weatherApiProviderRegistry;
+
+    @Mock
+    private WeatherApiProvider provider;
+
+    @Mock
+    private WeatherApiProvider otherProvider;
+
+    @Mock
+    private WeatherApiReader weatherApiReader;
+
+    @InjectMocks
+    private WeatherApiFetchServiceImpl service;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(service, "clock", Clock.systemDefaultZone());
+        ReflectionTestUtils.setField(service, "backoff", Duration.ofMillis(1));
+        service.start();
+    }
+
+    @AfterEach
+    public void teardown() {
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("WeatherApiFetchService.fetch should retry a failing provider until it responds")
+    public void testFetch_TransientFailures_ExpectRetriedFetch() {
+        when(weatherApiReaderFactory.makeWeatherApiReader(provider))
+            .thenReturn(null, null, weatherApiReader);
+
+        assertSame(weatherApiReader, service.fetch(provider));
+        verify(weatherApiReaderFactory, times(3)).makeWeatherApiReader(provider);
+    }
+
+    @Test
+    @DisplayName("WeatherApiFetchService.fetchAll should skip a provider that keeps failing")
+    public void testFetchAll_RepeatedFailures_ExpectOpenCircuit() {
+        when(weatherApiProviderRegistry.findEnabled())
+            .thenReturn(List.of(provider));
+        when(weatherApiReaderFactory.makeWeatherApiReader(provider))
+            .thenReturn(null);
+
+        // every fetch makes three attempts, the third consecutive failed fetch opens the circuit
+        for (int i = 0; i < 3; i++)
+            assertEquals(List.of(), service.fetchAll());
+        assertEquals(List.of(), service.fetchAll());
+        verify(weatherApiReaderFactory, times(9)).makeWeatherApiReader(provider);
+    }
+
+    @Test
+    @DisplayName("WeatherApiFetchService.fetch should reject a fetch when all fetch threads are busy and the queue is full")
+    public void testFetch_SaturatedPool_ExpectRejectedFetch() throws Exception {
+        service.stop();
+        ReflectionTestUtils.setField(service, "poolSize", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 0);
+        service.start();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(weatherApiReaderFactory.makeWeatherApiReader(provider)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return weatherApiReader;
+        });
+        CompletableFuture<WeatherApiReader> busy = CompletableFuture.supplyAsync(() -> service.fetch(provider));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertNull(service.fetch(otherProvider));
+        verify(weatherApiReaderFactory, never()).makeWeatherApiReader(otherProvider);
+        release.countDown();
+        assertSame(weatherApiReader, busy.get(5, TimeUnit.SECONDS));
+    }
+}
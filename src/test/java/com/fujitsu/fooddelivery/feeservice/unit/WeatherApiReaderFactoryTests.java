@@ -0,0 +1,86 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProvider;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiProviderRegistry;
+import com.fujitsu.fooddelivery.feeservice.service.factory.WeatherApiReaderFactory;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherApiReaderFactoryTests {
+    @Mock
+    private WeatherApiProviderRegistry weatherApiProviderRegistry;
+
+    @Mock
+    private WeatherApiProvider provider;
+
+    @Mock
+    private WeatherApiReader weatherApiReader;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private WeatherApiReaderFactory factory;
+
+    // sends the headers and the first bytes of the body, then stalls until the test is over
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try (OutputStream os = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, 1024);
+                os.write("<observations>".getBytes());
+                os.flush();
+                release.await(30, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+
+        factory = new WeatherApiReaderFactory(weatherApiProviderRegistry);
+        ReflectionTestUtils.setField(factory, "readTimeout", Duration.ofMillis(500));
+        when(weatherApiProviderRegistry.getEndpoint(provider))
+            .thenReturn("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        when(provider.getName()).thenReturn("stalling");
+    }
+
+    @AfterEach
+    public void teardown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("WeatherApiReaderFactory.makeWeatherApiReader should give up on a response body that stalls past the read timeout")
+    public void testMakeWeatherApiReader_StalledBody_ExpectNullWithinReadTimeout() throws IOException {
+        when(provider.read(any(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, InputStream.class).readAllBytes();
+            return weatherApiReader;
+        });
+
+        long start = System.nanoTime();
+        assertNull(factory.makeWeatherApiReader(provider));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+    }
+}
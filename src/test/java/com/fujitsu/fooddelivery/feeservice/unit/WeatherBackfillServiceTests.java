@@ -0,0 +1,142 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import com.fujitsu.fooddelivery.feeservice.representation.WeatherBackfillStatus;
+import com.fujitsu.fooddelivery.feeservice.service.LatestObservationService;
+import com.fujitsu.fooddelivery.feeservice.service.event.WeatherImportCompletedEvent;
+import com.fujitsu.fooddelivery.feeservice.service.impl.WeatherBackfillServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherBackfillServiceTests {
+    @Mock
+    private WeatherObservationRepository weatherObservationRepository;
+
+    @Mock
+    private WeatherStationRepository weatherStationRepository;
+
+    @Mock
+    private LatestObservationService latestObservationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private WeatherBackfillServiceImpl service;
+
+    @TempDir
+    private Path directory;
+
+    private static String makeFeed(long timestamp, String phenomenon) {
+        return """
+            <observations timestamp="%d">
+                <station>
+                    <name>Tallinn-Harku</name>
+                    <wmocode>26038</wmocode>
+                    <phenomenon>%s</phenomenon>
+                    <airtemperature>-2.1</airtemperature>
+                    <windspeed>4.5</windspeed>
+                </station>
+                <station>
+                    <name>Narva</name>
+                    <wmocode>26059</wmocode>
+                    <phenomenon>Clear</phenomenon>
+                    <airtemperature>1.0</airtemperature>
+                    <windspeed>2.0</windspeed>
+                </station>
+            </observations>
+            """.formatted(timestamp, phenomenon);
+    }
+
+    @Test
+    @DisplayName("WeatherBackfillService.backfill should store archived feeds of known stations and skip checkpointed files when run again")
+    public void testBackfill_PlainAndGzippedFeeds_ExpectStoredAndCheckpointed() throws IOException {
+        Files.writeString(directory.resolve("2024-01-01T00.xml"), makeFeed(1704067200L, "Light snow shower"));
+        Files.createDirectories(directory.resolve("2024-01"));
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(directory.resolve("2024-01/2024-01-01T01.xml.gz")))) {
+            output.write(makeFeed(1704070800L, "Overcast").getBytes(StandardCharsets.UTF_8));
+        }
+        Files.writeString(directory.resolve("broken.xml"), "<observations timestamp=\"1704074400\"><station>");
+        Path checkpoint = directory.resolve("state/backfill.checkpoint");
+
+        WeatherStation tallinn = WeatherStation.builder().id(1).name("Tallinn-Harku").wmoCode(26038).build();
+        when(weatherStationRepository.findAll()).thenReturn(List.of(tallinn));
+        when(weatherObservationRepository.upsertAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        WeatherBackfillStatus status = service.backfill(directory, checkpoint);
+        assertFalse(status.running());
+        assertEquals(3, status.totalFiles());
+        assertEquals(0, status.skippedFiles());
+        assertEquals(2, status.completedFiles());
+        assertEquals(1, status.failedFiles());
+        assertEquals(2, status.storedObservations());
+        assertEquals(List.of("2024-01-01T00.xml", "2024-01/2024-01-01T01.xml.gz"), Files.readAllLines(checkpoint).stream().sorted().toList());
+        verify(latestObservationService).update(List.of(1));
+        verify(eventPublisher).publishEvent(any(WeatherImportCompletedEvent.class));
+
+        // only the file that could not be read is retried
+        status = service.backfill(directory, checkpoint);
+        assertEquals(2, status.skippedFiles());
+        assertEquals(1, status.failedFiles());
+        assertEquals(0, status.storedObservations());
+        verify(weatherObservationRepository, times(1)).upsertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("WeatherBackfillService.backfill should not checkpoint files whose observations could not be stored")
+    public void testBackfill_StoreFails_ExpectNotCheckpointed() throws IOException {
+        Files.writeString(directory.resolve("2024-01-01T00.xml"), makeFeed(1704067200L, "Clear"));
+        Path checkpoint = directory.resolve("backfill.checkpoint");
+
+        WeatherStation tallinn = WeatherStation.builder().id(1).name("Tallinn-Harku").wmoCode(26038).build();
+        when(weatherStationRepository.findAll()).thenReturn(List.of(tallinn));
+        when(weatherObservationRepository.upsertAll(anyList())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        WeatherBackfillStatus status = service.backfill(directory, checkpoint);
+        assertEquals(0, status.completedFiles());
+        assertEquals(1, status.failedFiles());
+        assertTrue(Files.readAllLines(checkpoint).isEmpty());
+        verify(eventPublisher, never()).publishEvent(any(WeatherImportCompletedEvent.class));
+    }
+
+    @Test
+    @DisplayName("WeatherBackfillService.backfill should count a feed with an out-of-range timestamp as failed and continue with other files")
+    public void testBackfill_OutOfRangeTimestamp_ExpectFailedFile() throws IOException {
+        Files.writeString(directory.resolve("2024-01-01T00.xml"), makeFeed(1704067200L, "Clear"));
+        Files.writeString(directory.resolve("2024-01-01T01.xml"), makeFeed(99999999999999999L, "Clear"));
+        Path checkpoint = directory.resolve("backfill.checkpoint");
+
+        WeatherStation tallinn = WeatherStation.builder().id(1).name("Tallinn-Harku").wmoCode(26038).build();
+        when(weatherStationRepository.findAll()).thenReturn(List.of(tallinn));
+        when(weatherObservationRepository.upsertAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        WeatherBackfillStatus status = service.backfill(directory, checkpoint);
+        assertEquals(1, status.completedFiles());
+        assertEquals(1, status.failedFiles());
+        assertEquals(1, status.storedObservations());
+        assertEquals(List.of("2024-01-01T00.xml"), Files.readAllLines(checkpoint));
+    }
+}
@@ -0,0 +1,72 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.service.WeatherApiFetchService;
+import com.fujitsu.fooddelivery.feeservice.service.impl.WeatherFeedSnapshotServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.weatherapi.WeatherApiReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherFeedSnapshotServiceTests {
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+
+    @Mock
+    private WeatherApiFetchService weatherApiFetchService;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private WeatherApiReader reader;
+
+    @Mock
+    private WeatherApiReader refreshedReader;
+
+    @InjectMocks
+    private WeatherFeedSnapshotServiceImpl service;
+
+    @Test
+    @DisplayName("WeatherFeedSnapshotService.current should fetch once and reuse the snapshot until it expires")
+    public void testCurrent_WithinTtl_ExpectSingleFetch() {
+        when(clock.instant()).thenReturn(NOW);
+        when(weatherApiFetchService.fetchAll()).thenReturn(List.of(reader));
+
+        assertEquals(List.of(reader), service.current().getReaders());
+        assertEquals(List.of(reader), service.current().getReaders());
+        verify(weatherApiFetchService, times(1)).fetchAll();
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofHours(2)));
+        service.current();
+        verify(weatherApiFetchService, times(2)).fetchAll();
+    }
+
+    @Test
+    @DisplayName("WeatherFeedSnapshotService.current should refresh an aging snapshot in the background and keep it when fetching fails")
+    public void testCurrent_NearExpiry_ExpectRefreshAhead() {
+        when(clock.instant()).thenReturn(NOW);
+        when(weatherApiFetchService.fetchAll()).thenReturn(List.of(reader));
+        service.current();
+
+        when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(55)));
+        when(weatherApiFetchService.fetchAllAsync()).thenReturn(CompletableFuture.completedFuture(List.of(refreshedReader)));
+        assertEquals(List.of(reader), service.current().getReaders());
+        assertEquals(List.of(refreshedReader), service.current().getReaders());
+        verify(weatherApiFetchService, times(1)).fetchAll();
+
+        when(weatherApiFetchService.fetchAll()).thenReturn(List.of());
+        assertEquals(List.of(refreshedReader), service.refresh().getReaders());
+    }
+}
@@ -0,0 +1,98 @@
+package com.fujitsu.fooddelivery.feeservice.unit;
+
+import com.fujitsu.fooddelivery.feeservice.model.Location;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherObservation;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherPhenomenonClassification;
+import com.fujitsu.fooddelivery.feeservice.model.WeatherStation;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherObservationRepository;
+import com.fujitsu.fooddelivery.feeservice.model.repository.WeatherStationRepository;
+import com.fujitsu.fooddelivery.feeservice.service.LocationSnapshotService;
+import com.fujitsu.fooddelivery.feeservice.service.impl.WeatherObservationCompactionServiceImpl;
+import com.fujitsu.fooddelivery.feeservice.service.snapshot.LocationSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherObservationCompactionServiceTests {
+    @Mock
+    private WeatherObservationRepository weatherObservationRepository;
+
+    @Mock
+    private WeatherStationRepository weatherStationRepository;
+
+    @Mock
+    private LocationSnapshotService locationSnapshotService;
+
+    @InjectMocks
+    private WeatherObservationCompactionServiceImpl service;
+
+    @BeforeEach
+    public void setup() {
+        ReflectionTestUtils.setField(service, "clock", Clock.systemDefaultZone());
+    }
+
+    private final WeatherStation station = WeatherStation.builder().id(1).name("Tallinn-Harku").build();
+
+    private WeatherObservation makeObservation(int id, LocalDateTime timestamp, WeatherPhenomenonClassification phenomenon, float airTemperature) {
+        WeatherObservation observation = new WeatherObservation();
+        observation.setId(id);
+        observation.setAirtemperature(airTemperature);
+        observation.setWindSpeed(12.f);
+        observation.setPhenomenon(phenomenon);
+        observation.setTimestamp(timestamp);
+        observation.setStation(station);
+        return observation;
+    }
+
+    @Test
+    @DisplayName("WeatherObservationCompactionService.compact should delete old observations that do not change any fee")
+    public void testCompact_RepeatedFeeClasses_ExpectRedundantDeleted() {
+        Location tallinn = EstonianLocationRulesFactory.makeTallinnLocation();
+        tallinn.setId(1);
+        tallinn.setWeatherStation(station);
+        LocalDateTime start = LocalDateTime.now().minusDays(60);
+        // the rules have to be in effect over the whole compacted history
+        tallinn.getExtraFees().forEach(extraFee -> extraFee.setValidFrom(start.minusDays(1)));
+
+        when(weatherStationRepository.findAll()).thenReturn(List.of(station));
+        when(locationSnapshotService.findAll()).thenReturn(List.of(LocationSnapshot.of(tallinn)));
+        when(weatherObservationRepository.findByStationAndTimestampLessThanOrderByTimestampAsc(any(), any(), any()))
+            .thenReturn(List.of(
+                makeObservation(1, start, WeatherPhenomenonClassification.RAIN, 1.5f),
+                makeObservation(2, start.plusHours(1), WeatherPhenomenonClassification.RAIN, 1.5f),
+                makeObservation(3, start.plusHours(2), WeatherPhenomenonClassification.GLAZE, 1.5f),
+                makeObservation(4, start.plusHours(3), WeatherPhenomenonClassification.GLAZE, 2.5f)
+            ));
+        when(weatherObservationRepository.findFirstByStationAndTimestampGreaterThanEqualOrderByTimestampAsc(any(), any()))
+            .thenReturn(Optional.of(makeObservation(5, LocalDateTime.now(), WeatherPhenomenonClassification.GLAZE, 1.5f)));
+
+        assertEquals(2, service.compact());
+        verify(weatherObservationRepository).deleteAllByIdInBatch(List.of(2, 4));
+    }
+
+    @Test
+    @DisplayName("WeatherObservationCompactionService.compact should keep observations of stations that no location uses")
+    public void testCompact_UnusedStation_ExpectNothingDeleted() {
+        when(weatherStationRepository.findAll()).thenReturn(List.of(station));
+        when(locationSnapshotService.findAll()).thenReturn(List.of());
+
+        assertEquals(0, service.compact());
+        verify(weatherObservationRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+}
@@ -76,4 +76,16 @@ public class WeatherPhenomenonClassifierTests {
         assertEquals(WeatherPhenomenonClassification.THUNDER, PhenomenonClassifier.classify("Thunder"));
         assertEquals(WeatherPhenomenonClassification.THUNDER, PhenomenonClassifier.classify("Thunderstorm"));
     }
+
+    @Test
+    @DisplayName("Ensure that classification ignores ASCII case and keeps the priority of classes")
+    void testCaseAndPriorityClassification() {
+        assertEquals(WeatherPhenomenonClassification.SNOW, PhenomenonClassifier.classify("HEAVY SNOWFALL"));
+        assertEquals(WeatherPhenomenonClassification.RAIN, PhenomenonClassifier.classify("light RAIN"));
+        assertEquals(WeatherPhenomenonClassification.CLOUDY, PhenomenonClassifier.classify("Light snow shower with clouds"));
+        assertEquals(WeatherPhenomenonClassification.RAIN, PhenomenonClassifier.classify("Light rain and sleet"));
+        assertEquals(WeatherPhenomenonClassification.GLAZE, PhenomenonClassifier.classify("Sleet and glaze"));
+        assertEquals(WeatherPhenomenonClassification.CLEAR, PhenomenonClassifier.classify("Light  rain"));
+        assertEquals(WeatherPhenomenonClassification.CLEAR, PhenomenonClassifier.classify("Light\nrain"));
+    }
 }